@@ -1,12 +1,23 @@
 package edu.ccrm.cli;
 
 import edu.ccrm.domain.*;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.InstructorService;
+import edu.ccrm.service.StudentPage;
+import edu.ccrm.service.StudentQuery;
+import edu.ccrm.service.StudentQueryPlan;
 import edu.ccrm.service.StudentService;
 import edu.ccrm.io.FileService;
+import edu.ccrm.io.GradeRecord;
+import edu.ccrm.service.DepartmentSummaryCache;
+import edu.ccrm.service.GradeImportReport;
+import edu.ccrm.service.StandingEvaluationJob;
+import edu.ccrm.service.TimetableClashReport;
 import edu.ccrm.util.ComparatorUtils;
 import edu.ccrm.config.AppConfig;
+import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Command Line Interface for CCRM system
@@ -14,20 +25,23 @@ import java.util.stream.Collectors;
  */
 public class CommandLineInterface {
 
+    private static final int PAGE_SIZE = 20;
+
     private final Scanner scanner;
     private final StudentService studentService;
+    private final CourseService courseService;
     private final FileService fileService;
     private final AppConfig config;
-    private final Map<String, Course> courses;
-    private final Map<String, Instructor> instructors;
+    private final InstructorService instructorService;
 
     public CommandLineInterface() {
         this.scanner = new Scanner(System.in);
         this.studentService = new StudentService();
+        this.courseService = new CourseService();
         this.fileService = new FileService();
         this.config = AppConfig.getInstance();
-        this.courses = new HashMap<>();
-        this.instructors = new HashMap<>();
+        this.instructorService = new InstructorService(courseService);
+        this.studentService.setCourseCatalog(courseService);
 
         initializeSampleData();
     }
@@ -133,6 +147,7 @@ public class CommandLineInterface {
             }
 
             Student student = studentOpt.get();
+            long version = student.getVersion();
             System.out.println("Current info: " + student.getDisplayInfo());
             System.out.println("Leave fields empty to keep current values.");
 
@@ -141,12 +156,14 @@ public class CommandLineInterface {
             int year = getIntInputWithDefault("New Year (1-4): ", student.getYear());
             String department = getStringInput("New Department: ");
 
-            studentService.updateStudent(id, name.isEmpty() ? null : name, 
+            studentService.updateStudent(id, version, name.isEmpty() ? null : name, 
                                        email.isEmpty() ? null : email, year, 
                                        department.isEmpty() ? null : department);
 
             System.out.println("Student updated successfully.");
 
+        } catch (StaleVersionException e) {
+            System.err.println("Student was modified by someone else while editing. Please reload and retry.");
         } catch (Exception e) {
             System.err.println("Error updating student: " + e.getMessage());
         }
@@ -174,28 +191,31 @@ public class CommandLineInterface {
         System.out.println("4. Sort by GPA");
 
         int choice = getIntInput("Choose display option: ");
-        List<Student> students;
-
-        switch (choice) {
-            case 1 -> students = studentService.getAllStudents();
-            case 2 -> students = studentService.getActiveStudents();
-            case 3 -> {
-                students = studentService.getAllStudents();
-                students.sort(ComparatorUtils.BY_NAME);
+        StudentPage page = switch (choice) {
+            case 2 -> studentService.listStudents(StudentPage.Order.ID, true, PAGE_SIZE);
+            case 3 -> studentService.listStudents(StudentPage.Order.NAME, false, PAGE_SIZE);
+            case 4 -> studentService.listStudents(StudentPage.Order.GPA, false, PAGE_SIZE);
+            default -> studentService.listStudents(StudentPage.Order.ID, false, PAGE_SIZE);
+        };
+
+        if (page.getStudents().isEmpty()) {
+            System.out.println("No students found.");
+            return;
+        }
+        int shown = 0;
+        while (true) {
+            page.getStudents().forEach(student -> System.out.println(student.getDisplayInfo()));
+            shown += page.getStudents().size();
+            if (!page.hasNext()) {
+                break;
             }
-            case 4 -> {
-                students = studentService.getAllStudents();
-                students.sort(ComparatorUtils.BY_GPA);
+            String next = getStringInput("-- " + shown + " shown; Enter for more, q to stop: ");
+            if (next.equalsIgnoreCase("q")) {
+                break;
             }
-            default -> students = studentService.getAllStudents();
-        }
-
-        if (students.isEmpty()) {
-            System.out.println("No students found.");
-        } else {
-            students.forEach(student -> System.out.println(student.getDisplayInfo()));
-            System.out.println("Total: " + students.size() + " students");
+            page = studentService.listStudents(page.getNextCursor().get(), PAGE_SIZE);
         }
+        System.out.println("Shown: " + shown + " of " + studentService.getStudentCount() + " students");
     }
 
     private void searchStudents() {
@@ -203,6 +223,9 @@ public class CommandLineInterface {
         System.out.println("1. By Department");
         System.out.println("2. By Year");
         System.out.println("3. By GPA Range");
+        System.out.println("4. By Name Prefix");
+        System.out.println("5. By Name (typo-tolerant)");
+        System.out.println("6. Combined Criteria");
 
         int choice = getIntInput("Search by: ");
         List<Student> results;
@@ -220,6 +243,26 @@ public class CommandLineInterface {
                 double minGPA = getDoubleInput("Minimum GPA: ");
                 results = studentService.getStudentsWithGPAAbove(minGPA);
             }
+            case 4 -> {
+                String prefix = getStringInput("Name, email or registration prefix: ");
+                results = studentService.searchByPrefix(prefix, 20);
+            }
+            case 5 -> {
+                String query = getStringInput("Name: ");
+                results = studentService.fuzzySearch(query, 20);
+            }
+            case 6 -> {
+                StudentQuery query;
+                try {
+                    query = readStudentQuery();
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Invalid criteria: " + e.getMessage());
+                    return;
+                }
+                StudentQueryPlan.Result result = studentService.query(query);
+                System.out.print(result.explain());
+                results = result.getStudents();
+            }
             default -> {
                 System.out.println("Invalid choice.");
                 return;
@@ -234,6 +277,44 @@ public class CommandLineInterface {
         }
     }
 
+    // Reads optional query criteria; blank answers leave a criterion out
+    private StudentQuery readStudentQuery() {
+        System.out.println("Leave a field empty to skip it.");
+        StudentQuery.Builder builder = new StudentQuery.Builder();
+        String department = getStringInput("Department: ");
+        if (!department.isEmpty()) {
+            builder.department(department);
+        }
+        String year = getStringInput("Year (1-4): ");
+        if (!year.isEmpty()) {
+            builder.year(Integer.parseInt(year));
+        }
+        String active = getStringInput("Active (y/n): ");
+        if (!active.isEmpty()) {
+            builder.active(active.equalsIgnoreCase("y"));
+        }
+        String minGpa = getStringInput("Minimum GPA: ");
+        if (!minGpa.isEmpty()) {
+            builder.minGpa(Double.parseDouble(minGpa));
+        }
+        String maxGpa = getStringInput("Maximum GPA: ");
+        if (!maxGpa.isEmpty()) {
+            builder.maxGpa(Double.parseDouble(maxGpa));
+        }
+        String courseId = getStringInput("Enrolled in course ID: ");
+        if (!courseId.isEmpty()) {
+            builder.enrolledIn(courseId);
+        }
+        if (getStringInput("Sort by GPA (y/n): ").equalsIgnoreCase("y")) {
+            builder.sortBy(ComparatorUtils.BY_GPA);
+        }
+        String limit = getStringInput("Limit: ");
+        if (!limit.isEmpty()) {
+            builder.limit(Integer.parseInt(limit));
+        }
+        return builder.build();
+    }
+
     private void deactivateStudent() {
         String id = getStringInput("Enter Student ID to deactivate: ");
         Optional<Student> studentOpt = studentService.getStudent(id);
@@ -247,10 +328,57 @@ public class CommandLineInterface {
     }
 
     private void handleCourseManagement() {
-        System.out.println("\n--- Course Management ---");
-        System.out.println("Feature implemented with basic course creation.");
+        while (true) {
+            System.out.println("\n--- Course Management ---");
+            System.out.println("1. Add Course");
+            System.out.println("2. Search Courses");
+            System.out.println("3. Add Instructor");
+            System.out.println("0. Back to Main Menu");
+
+            int choice = getIntInput("Enter choice: ");
+
+            switch (choice) {
+                case 1 -> addCourse();
+                case 2 -> searchCourses();
+                case 3 -> addInstructor();
+                case 0 -> { return; }
+                default -> System.out.println("Invalid choice.");
+            }
+        }
+    }
+
+    private void searchCourses() {
+        String query = getStringInput("Keywords (last word may be partial): ");
+        List<Course> results = courseService.searchCoursesByPrefix(query, 20);
+        if (results.isEmpty()) {
+            System.out.println("No matching courses.");
+            return;
+        }
+        System.out.println("\nTop matches:");
+        results.forEach(course -> System.out.printf("%s - %s [%s, %s]%n",
+            course.getCourseId(), course.getTitle(), course.getDepartment(), course.getSemester()));
+    }
+
+    private void addInstructor() {
+        try {
+            System.out.println("\n--- Add New Instructor ---");
+            String id = getStringInput("Instructor ID: ");
+            String name = getStringInput("Name: ");
+            String email = getStringInput("Email: ");
+            String employeeId = getStringInput("Employee ID: ");
+            String department = getStringInput("Department: ");
+            String specialization = getStringInput("Specialization (blank for none): ");
 
-        // Create a sample course
+            Instructor instructor = instructorService.addInstructor(new Instructor(id, name, email, employeeId,
+                department, specialization.isEmpty() ? null : specialization));
+            System.out.println("Instructor created successfully: " + instructor.getDisplayInfo());
+        } catch (Exception e) {
+            System.err.println("Error creating instructor: " + e.getMessage());
+        }
+    }
+
+    private void addCourse() {
+        System.out.println("\n--- Add New Course ---");
         String courseId = getStringInput("Course ID: ");
         String courseCode = getStringInput("Course Code (e.g., CS101): ");
         String title = getStringInput("Course Title: ");
@@ -270,8 +398,28 @@ public class CommandLineInterface {
                     .semester(semester)
                     .build();
 
-            courses.put(courseId, course);
+            courseService.addCourse(course);
             System.out.println("Course created: " + course);
+
+            String slotText = getStringInput("Meeting slot (e.g. MON 09:00-10:30 R101, blank to skip): ");
+            while (!slotText.isEmpty()) {
+                try {
+                    courseService.addMeetingSlot(course.getCourseId(), MeetingSlot.parse(slotText));
+                } catch (ScheduleConflictException | IllegalArgumentException e) {
+                    System.err.println("Slot not added: " + e.getMessage());
+                } catch (DateTimeParseException e) {
+                    System.err.println("Invalid time: " + e.getParsedString());
+                }
+                slotText = getStringInput("Another meeting slot (blank to finish): ");
+            }
+
+            if (instructorService.getInstructorCount() > 0
+                    && getStringInput("Auto-assign least-loaded instructor? (y/n): ").equalsIgnoreCase("y")) {
+                instructorService.autoAssign(course.getCourseId(), null).ifPresentOrElse(
+                    instructor -> System.out.println("Assigned to " + instructor.getName()
+                        + " (" + instructor.getCourseLoad() + " courses)"),
+                    () -> System.out.println("No instructor available in " + course.getDepartment()));
+            }
         } catch (Exception e) {
             System.err.println("Error creating course: " + e.getMessage());
         }
@@ -280,7 +428,7 @@ public class CommandLineInterface {
     private void handleEnrollmentManagement() {
         System.out.println("\n--- Enrollment Management ---");
 
-        if (courses.isEmpty()) {
+        if (courseService.getCourseCount() == 0) {
             System.out.println("No courses available. Please create courses first.");
             return;
         }
@@ -288,10 +436,10 @@ public class CommandLineInterface {
         String studentId = getStringInput("Student ID: ");
 
         System.out.println("Available courses:");
-        courses.values().forEach(course -> System.out.println(course.getCourseId() + " - " + course.getTitle()));
+        courseService.getAllCourses().forEach(course -> System.out.println(course.getCourseId() + " - " + course.getTitle()));
 
         String courseId = getStringInput("Course ID to enroll in: ");
-        Course course = courses.get(courseId);
+        Course course = courseService.getCourse(courseId).orElse(null);
 
         if (course == null) {
             System.out.println("Course not found.");
@@ -352,6 +500,9 @@ public class CommandLineInterface {
         System.out.println("3. Create Backup");
         System.out.println("4. List Backups");
         System.out.println("5. Restore from Backup");
+        System.out.println("6. Import Grades from CSV");
+        System.out.println("7. Export Courses to CSV");
+        System.out.println("8. Import Courses from CSV");
 
         int choice = getIntInput("Choose operation: ");
 
@@ -390,6 +541,29 @@ public class CommandLineInterface {
                     String backupName = getStringInput("Backup name to restore: ");
                     fileService.restoreFromBackup(backupName);
                 }
+                case 6 -> {
+                    String filename = getStringInput("Grades filename (StudentID,CourseID,Grade): ");
+                    GradeImportReport report;
+                    try (Stream<GradeRecord> rows = fileService.streamGradesFromCSV(filename)) {
+                        report = studentService.importGrades(rows, 10_000);
+                    }
+                    System.out.println("Grades applied: " + report.getRowsApplied() + " of " + report.getRowsRead()
+                                       + " rows in " + report.getElapsedMillis() + " ms");
+                    if (report.getRowsRejected() > 0) {
+                        System.out.println("Rejected rows: " + report.getRejections());
+                        report.getSampleErrors().stream().limit(10).forEach(error -> System.out.println("  " + error));
+                    }
+                }
+                case 7 -> {
+                    String filename = getStringInput("Export filename (e.g., courses.csv): ");
+                    fileService.exportCoursesToCSV(courseService.getAllCourses(), filename);
+                }
+                case 8 -> {
+                    String filename = getStringInput("Import filename: ");
+                    List<Course> importedCourses = fileService.importCoursesFromCSV(filename);
+                    courseService.loadCourses(importedCourses);
+                    System.out.println("Courses imported: " + importedCourses.size());
+                }
                 default -> System.out.println("Invalid choice.");
             }
         } catch (Exception e) {
@@ -402,6 +576,11 @@ public class CommandLineInterface {
         System.out.println("1. Student Statistics");
         System.out.println("2. Generate Transcript");
         System.out.println("3. Department Summary");
+        System.out.println("4. Course Grade Distribution");
+        System.out.println("5. Academic Standing Batch");
+        System.out.println("6. Instructor Roster");
+        System.out.println("7. Timetable Clash Report");
+        System.out.println("8. Most Enrolled Courses");
 
         int choice = getIntInput("Choose report: ");
 
@@ -409,6 +588,11 @@ public class CommandLineInterface {
             case 1 -> showStudentStatistics();
             case 2 -> generateTranscript();
             case 3 -> showDepartmentSummary();
+            case 4 -> showCourseGradeDistribution();
+            case 5 -> runStandingEvaluation();
+            case 6 -> showInstructorRoster();
+            case 7 -> showTimetableClashes();
+            case 8 -> showMostEnrolledCourses();
             default -> System.out.println("Invalid choice.");
         }
     }
@@ -444,20 +628,107 @@ public class CommandLineInterface {
     }
 
     private void showDepartmentSummary() {
-        Map<String, List<Student>> deptGroups = studentService.getActiveStudents()
-                .stream()
-                .collect(Collectors.groupingBy(Student::getDepartment));
+        Map<String, DepartmentSummaryCache.DepartmentSummary> summaries = studentService.getDepartmentSummaries();
 
         System.out.println("\n=== Department Summary ===");
-        deptGroups.forEach((dept, students) -> {
-            double avgGPA = students.stream()
-                    .mapToDouble(Student::calculateGPA)
-                    .average()
-                    .orElse(0.0);
-
-            System.out.printf("%s: %d students, Avg GPA: %.2f%n", 
-                            dept, students.size(), avgGPA);
+        summaries.forEach((dept, summary) ->
+            System.out.printf("%s: %d students, Avg GPA: %.2f, Years 1-4: %d/%d/%d/%d%n",
+                            dept, summary.getStudentCount(), summary.getAverageGpa(),
+                            summary.getYearCount(1), summary.getYearCount(2),
+                            summary.getYearCount(3), summary.getYearCount(4)));
+    }
+
+    private void showMostEnrolledCourses() {
+        System.out.println("\n=== Most Enrolled Courses ===");
+        courseService.streamSorted(ComparatorUtils.BY_ENROLLMENT)
+            .limit(PAGE_SIZE)
+            .forEach(course -> System.out.printf("%s - %s: %d/%d students%n",
+                course.getCourseId(), course.getTitle(), course.getCurrentEnrollment(), course.getMaxEnrollment()));
+    }
+
+    private void showInstructorRoster() {
+        String instructorId = getStringInput("Instructor ID: ");
+        String semester = getStringInput("Semester (blank for all): ");
+        String term = semester.isEmpty() ? null : semester;
+
+        List<Course> taught = courseService.getCoursesByInstructor(instructorId);
+        if (taught.isEmpty()) {
+            System.out.println("No courses assigned to " + instructorId + ".");
+            return;
+        }
+        System.out.println("\n=== Roster for " + instructorId + " ===");
+        taught.forEach(course -> System.out.printf("Course %s - %s (%s): %d students%n",
+            course.getCourseId(), course.getTitle(), course.getSemester(), course.getCurrentEnrollment()));
+
+        long[] count = {0};
+        courseService.streamStudentsTaughtBy(instructorId, term).forEach(studentId -> {
+            count[0]++;
+            studentService.getStudent(studentId).ifPresentOrElse(
+                student -> System.out.println("  " + student.getDisplayInfo()),
+                () -> System.out.println("  " + studentId));
         });
+        System.out.println("Distinct students: " + count[0]);
+    }
+
+    private void showTimetableClashes() {
+        String semester = getStringInput("Semester: ");
+        List<Course> termCourses = courseService.getCoursesBySemester(semester);
+        if (termCourses.isEmpty()) {
+            System.out.println("No courses found for " + semester + ".");
+            return;
+        }
+
+        TimetableClashReport report = TimetableClashReport.generate(termCourses);
+        System.out.println("\n=== Timetable Clashes: " + semester + " ===");
+        System.out.println("Room double-bookings: " + report.getRoomClashes().size());
+        report.getRoomClashes().forEach(clash -> System.out.println("  " + clash));
+        System.out.println("Student clashes: " + report.getStudentClashes().size());
+        report.getStudentClashes().forEach(clash -> System.out.println("  " + clash));
+    }
+
+    private void showCourseGradeDistribution() {
+        String courseId = getStringInput("Course ID: ");
+        Course course = courseService.getCourse(courseId).orElse(null);
+
+        if (course == null) {
+            System.out.println("Course not found.");
+            return;
+        }
+
+        System.out.println("\n=== Grade Distribution: " + course.getCourseCode() + " - " + course.getTitle() + " ===");
+        long graded = course.getGradedCount();
+        if (graded == 0) {
+            System.out.println("No grades recorded.");
+            return;
+        }
+
+        course.getGradeDistribution().forEach((grade, count) ->
+            System.out.printf("  %s: %d (%.1f%%)%n", grade.name(), count, 100.0 * count / graded));
+        System.out.printf("Graded: %d, Mean: %.2f, Pass rate: %.1f%%%n",
+                          graded, course.getMeanGradePoints(), 100.0 * course.getPassRate());
+    }
+
+    private void runStandingEvaluation() {
+        int parallelism = getIntInputWithDefault("Worker threads", Runtime.getRuntime().availableProcessors());
+        if (parallelism < 1) {
+            System.out.println("Worker threads must be at least 1.");
+            return;
+        }
+
+        StandingEvaluationJob.Results results = studentService.evaluateStandings(parallelism);
+        System.out.printf("%nEvaluated %d students on %d threads in %d ms%n",
+                          results.size(), results.getParallelism(), results.getElapsedMillis());
+        results.getCounts().forEach((standing, count) ->
+            System.out.println("  " + standing.getDescription() + ": " + count));
+
+        String filename = getStringInput("Export filename (empty to skip): ");
+        if (!filename.isEmpty()) {
+            try {
+                fileService.exportRowsToCSV(StandingEvaluationJob.Results.CSV_HEADER, results.csvRows(), filename);
+            } catch (Exception e) {
+                System.err.println("Export error: " + e.getMessage());
+            }
+        }
     }
 
     private void showSystemInfo() {
@@ -466,8 +737,8 @@ public class CommandLineInterface {
         System.out.println("Java Version: " + System.getProperty("java.version"));
         System.out.println("Configuration: " + config);
         System.out.println("Total Students: " + studentService.getStudentCount());
-        System.out.println("Total Courses: " + courses.size());
-        System.out.println("Total Instructors: " + instructors.size());
+        System.out.println("Total Courses: " + courseService.getCourseCount());
+        System.out.println("Total Instructors: " + instructorService.getInstructorCount());
     }
 
     private void initializeSampleData() {
@@ -491,7 +762,7 @@ public class CommandLineInterface {
                 .semester("Fall 2023")
                 .build();
 
-        courses.put("CS101", cs101);
+        courseService.addCourse(cs101);
 
         System.out.println("Sample data initialized.");
     }
@@ -17,6 +17,13 @@ public class AppConfig {
     private int maxCourseEnrollment = 50;
     private String dataDirectory = "data";
     private String backupDirectory = "backups";
+    private String archiveDirectory = "archive";
+
+    // Academic standing rules
+    private double deansListMinGpa = 9.0;
+    private int deansListMaxFailed = 0;
+    private double probationMaxGpa = 5.0;
+    private int probationMinFailed = 2;
 
     // Private constructor for Singleton
     private AppConfig() {
@@ -46,6 +53,15 @@ public class AppConfig {
                     properties.getProperty("max.course.enrollment", String.valueOf(maxCourseEnrollment)));
                 dataDirectory = properties.getProperty("data.directory", dataDirectory);
                 backupDirectory = properties.getProperty("backup.directory", backupDirectory);
+                archiveDirectory = properties.getProperty("archive.directory", archiveDirectory);
+                deansListMinGpa = Double.parseDouble(
+                    properties.getProperty("standing.deans.list.min.gpa", String.valueOf(deansListMinGpa)));
+                deansListMaxFailed = Integer.parseInt(
+                    properties.getProperty("standing.deans.list.max.failed", String.valueOf(deansListMaxFailed)));
+                probationMaxGpa = Double.parseDouble(
+                    properties.getProperty("standing.probation.max.gpa", String.valueOf(probationMaxGpa)));
+                probationMinFailed = Integer.parseInt(
+                    properties.getProperty("standing.probation.min.failed", String.valueOf(probationMinFailed)));
             }
         } catch (IOException | NumberFormatException e) {
             System.err.println("Could not load configuration: " + e.getMessage());
@@ -70,6 +86,26 @@ public class AppConfig {
         return backupDirectory;
     }
 
+    public String getArchiveDirectory() {
+        return archiveDirectory;
+    }
+
+    public double getDeansListMinGpa() {
+        return deansListMinGpa;
+    }
+
+    public int getDeansListMaxFailed() {
+        return deansListMaxFailed;
+    }
+
+    public double getProbationMaxGpa() {
+        return probationMaxGpa;
+    }
+
+    public int getProbationMinFailed() {
+        return probationMinFailed;
+    }
+
     public String getProperty(String key, String defaultValue) {
         return properties.getProperty(key, defaultValue);
     }
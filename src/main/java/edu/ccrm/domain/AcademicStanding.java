@@ -0,0 +1,20 @@
+package edu.ccrm.domain;
+
+/**
+ * Enumeration for end-of-term academic standing
+ */
+public enum AcademicStanding {
+    DEANS_LIST("Dean's List"),
+    GOOD_STANDING("Good Standing"),
+    PROBATION("Academic Probation");
+
+    private final String description;
+
+    AcademicStanding(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -1,7 +1,12 @@
 package edu.ccrm.domain;
 
+import edu.ccrm.util.Clocks;
+import edu.ccrm.util.StringDictionary;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 /**
  * Course class representing academic courses
@@ -13,14 +18,22 @@ public class Course {
     private String title;
     private String description;
     private int credits;
-    private String department;
-    private String semester;
+    private String department; // Canonical instance from StringDictionary.DEPARTMENTS
+    private String semester;   // Canonical instance from StringDictionary.SEMESTERS
     private String instructorId;
     private Set<String> prerequisites; // Course IDs
+    private List<MeetingSlot> meetingSlots;
     private Set<String> enrolledStudents; // Student IDs
+    private final Set<String> enrolledStudentsView; // Read-only live view of enrolledStudents
     private int maxEnrollment;
-    private LocalDateTime createdAt;
-    private LocalDateTime updatedAt;
+    private final EnumMap<Grade, LongAdder> gradeHistogram; // Maintained on every grade write
+    private long createdAtMillis; // Epoch millis, exposed as LocalDateTime by the getters
+    private long updatedAtMillis;
+    // Incremented on every mutation, for optimistic concurrency. Mutators hold this course's
+    // monitor, the guard updateIfVersion checks under; volatile so readers need no lock
+    private volatile long version;
+    private final List<CourseChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private List<Consumer<CourseChangeListener>> deferred; // Held back while updateIfVersion runs
 
     public Course(String courseId, String courseCode, String title, String description,
                  int credits, String department, String semester) {
@@ -29,13 +42,21 @@ public class Course {
         this.title = Objects.requireNonNull(title, "Title cannot be null");
         this.description = description;
         this.credits = credits;
-        this.department = Objects.requireNonNull(department, "Department cannot be null");
-        this.semester = Objects.requireNonNull(semester, "Semester cannot be null");
+        this.department = StringDictionary.DEPARTMENTS.canonical(
+            Objects.requireNonNull(department, "Department cannot be null"));
+        this.semester = StringDictionary.SEMESTERS.canonical(
+            Objects.requireNonNull(semester, "Semester cannot be null"));
         this.prerequisites = new HashSet<>();
+        this.meetingSlots = new ArrayList<>();
         this.enrolledStudents = new HashSet<>();
+        this.enrolledStudentsView = Collections.unmodifiableSet(enrolledStudents);
         this.maxEnrollment = 50; // default
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.gradeHistogram = new EnumMap<>(Grade.class);
+        for (Grade grade : Grade.values()) {
+            gradeHistogram.put(grade, new LongAdder());
+        }
+        this.createdAtMillis = Clocks.now();
+        this.updatedAtMillis = createdAtMillis;
 
         // Assertions for validation
         assert credits > 0 && credits <= 6 : "Credits must be between 1 and 6";
@@ -54,6 +75,7 @@ public class Course {
         private String semester;
         private String instructorId;
         private int maxEnrollment = 50;
+        private final List<MeetingSlot> meetingSlots = new ArrayList<>();
 
         public Builder courseId(String courseId) {
             this.courseId = courseId;
@@ -100,11 +122,17 @@ public class Course {
             return this;
         }
 
+        public Builder meetingSlot(MeetingSlot slot) {
+            this.meetingSlots.add(slot);
+            return this;
+        }
+
         public Course build() {
             Course course = new Course(courseId, courseCode, title, description, 
                                      credits, department, semester);
             course.setInstructorId(instructorId);
             course.setMaxEnrollment(maxEnrollment);
+            meetingSlots.forEach(course::addMeetingSlot);
             return course;
         }
     }
@@ -117,68 +145,172 @@ public class Course {
     public String getTitle() { return title; }
 
     public void setTitle(String title) {
-        this.title = Objects.requireNonNull(title, "Title cannot be null");
-        this.updatedAt = LocalDateTime.now();
+        Objects.requireNonNull(title, "Title cannot be null");
+        synchronized (this) {
+            this.title = title;
+            touch();
+        }
+        fire(listener -> listener.textChanged(this));
     }
 
     public String getDescription() { return description; }
 
     public void setDescription(String description) {
-        this.description = description;
-        this.updatedAt = LocalDateTime.now();
+        synchronized (this) {
+            this.description = description;
+            touch();
+        }
+        fire(listener -> listener.textChanged(this));
     }
 
     public int getCredits() { return credits; }
 
-    public void setCredits(int credits) {
+    public synchronized void setCredits(int credits) {
         assert credits > 0 && credits <= 6 : "Credits must be between 1 and 6";
         this.credits = credits;
-        this.updatedAt = LocalDateTime.now();
+        touch();
     }
 
     public String getDepartment() { return department; }
 
     public void setDepartment(String department) {
-        this.department = Objects.requireNonNull(department, "Department cannot be null");
-        this.updatedAt = LocalDateTime.now();
+        String current = StringDictionary.DEPARTMENTS.canonical(
+            Objects.requireNonNull(department, "Department cannot be null"));
+        String previous;
+        synchronized (this) {
+            previous = this.department;
+            this.department = current;
+            touch();
+        }
+        if (!previous.equals(current)) {
+            fire(listener -> listener.departmentChanged(this, previous, current));
+        }
     }
 
     public String getSemester() { return semester; }
 
     public void setSemester(String semester) {
-        this.semester = Objects.requireNonNull(semester, "Semester cannot be null");
-        this.updatedAt = LocalDateTime.now();
+        String current = StringDictionary.SEMESTERS.canonical(
+            Objects.requireNonNull(semester, "Semester cannot be null"));
+        String previous;
+        synchronized (this) {
+            previous = this.semester;
+            this.semester = current;
+            touch();
+        }
+        if (!previous.equals(current)) {
+            fire(listener -> listener.semesterChanged(this, previous, current));
+        }
     }
 
     public String getInstructorId() { return instructorId; }
 
     public void setInstructorId(String instructorId) {
-        this.instructorId = instructorId;
-        this.updatedAt = LocalDateTime.now();
+        String previous;
+        synchronized (this) {
+            previous = this.instructorId;
+            this.instructorId = instructorId;
+            touch();
+        }
+        if (!Objects.equals(previous, instructorId)) {
+            fire(listener -> listener.instructorChanged(this, previous, instructorId));
+        }
     }
 
     public int getMaxEnrollment() { return maxEnrollment; }
 
     public void setMaxEnrollment(int maxEnrollment) {
         assert maxEnrollment > 0 : "Max enrollment must be positive";
-        this.maxEnrollment = maxEnrollment;
-        this.updatedAt = LocalDateTime.now();
+        int previous;
+        synchronized (this) {
+            previous = this.maxEnrollment;
+            this.maxEnrollment = maxEnrollment;
+            touch();
+        }
+        if (previous != maxEnrollment) {
+            fire(listener -> listener.maxEnrollmentChanged(this, previous, maxEnrollment));
+        }
     }
 
-    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getCreatedAt() { return Clocks.toLocalDateTime(createdAtMillis); }
+
+    public LocalDateTime getUpdatedAt() { return Clocks.toLocalDateTime(updatedAtMillis); }
+
+    public long getCreatedAtMillis() { return createdAtMillis; }
 
-    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public long getUpdatedAtMillis() { return updatedAtMillis; }
+
+    public long getVersion() { return version; }
+
+    // Change listeners, used by the service layer to keep its indexes in step
+    public void addChangeListener(CourseChangeListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+    }
+
+    public void removeChangeListener(CourseChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Records a mutation using the cached application clock and bumps the version;
+    // callers hold this course's monitor
+    private void touch() {
+        this.updatedAtMillis = Clocks.now();
+        this.version++;
+    }
+
+    /**
+     * Compare-and-set update: applies the changes only if the course is still at the
+     * version the caller read, otherwise throws a retryable StaleVersionException.
+     * Every mutator takes the same monitor, so nothing interleaves between the check
+     * and the changes; listeners are notified once the monitor is released
+     */
+    public void updateIfVersion(long expectedVersion, Consumer<Course> changes)
+            throws StaleVersionException {
+        List<Consumer<CourseChangeListener>> notifications;
+        synchronized (this) {
+            if (version != expectedVersion) {
+                throw new StaleVersionException(courseId, expectedVersion, version);
+            }
+            if (deferred != null) {
+                changes.accept(this); // Nested; the outer call delivers
+                return;
+            }
+            deferred = new ArrayList<>();
+            try {
+                changes.accept(this);
+            } finally {
+                notifications = deferred;
+                deferred = null;
+            }
+        }
+        notifications.forEach(this::deliver);
+    }
+
+    // Listeners take service locks, so they never run under this course's monitor
+    private void fire(Consumer<CourseChangeListener> notification) {
+        if (Thread.holdsLock(this) && deferred != null) {
+            deferred.add(notification);
+        } else {
+            deliver(notification);
+        }
+    }
+
+    private void deliver(Consumer<CourseChangeListener> notification) {
+        for (CourseChangeListener listener : listeners) {
+            notification.accept(listener);
+        }
+    }
 
     // Prerequisites management
-    public void addPrerequisite(String courseId) {
+    public synchronized void addPrerequisite(String courseId) {
         Objects.requireNonNull(courseId, "Prerequisite course ID cannot be null");
         prerequisites.add(courseId);
-        this.updatedAt = LocalDateTime.now();
+        touch();
     }
 
-    public void removePrerequisite(String courseId) {
+    public synchronized void removePrerequisite(String courseId) {
         prerequisites.remove(courseId);
-        this.updatedAt = LocalDateTime.now();
+        touch();
     }
 
     public Set<String> getPrerequisites() {
@@ -189,26 +321,81 @@ public class Course {
         return prerequisites.contains(courseId);
     }
 
+    // Meeting slots; room and timetable indexes are kept by the service layer
+    public void addMeetingSlot(MeetingSlot slot) {
+        Objects.requireNonNull(slot, "Meeting slot cannot be null");
+        List<MeetingSlot> previous;
+        List<MeetingSlot> current;
+        synchronized (this) {
+            previous = new ArrayList<>(meetingSlots);
+            meetingSlots.add(slot);
+            touch();
+            current = getMeetingSlots();
+        }
+        fire(listener -> listener.meetingSlotsChanged(this, previous, current));
+    }
+
+    public void removeMeetingSlot(MeetingSlot slot) {
+        List<MeetingSlot> previous;
+        List<MeetingSlot> current;
+        synchronized (this) {
+            previous = new ArrayList<>(meetingSlots);
+            if (!meetingSlots.remove(slot)) {
+                return;
+            }
+            touch();
+            current = getMeetingSlots();
+        }
+        fire(listener -> listener.meetingSlotsChanged(this, previous, current));
+    }
+
+    public synchronized List<MeetingSlot> getMeetingSlots() {
+        return new ArrayList<>(meetingSlots); // Defensive copy
+    }
+
+    public boolean hasMeetingSlots() {
+        return !meetingSlots.isEmpty();
+    }
+
     // Enrollment management
     public boolean enrollStudent(String studentId) {
-        if (enrolledStudents.size() >= maxEnrollment) {
-            return false; // Course is full
-        }
-        boolean added = enrolledStudents.add(studentId);
-        if (added) {
-            this.updatedAt = LocalDateTime.now();
+        int count;
+        synchronized (this) {
+            if (enrolledStudents.size() >= maxEnrollment) {
+                return false; // Course is full
+            }
+            if (!enrolledStudents.add(studentId)) {
+                return false;
+            }
+            touch();
+            count = enrolledStudents.size();
         }
-        return added;
+        fire(listener -> listener.enrollmentChanged(this, count - 1, count));
+        return true;
     }
 
     public void unenrollStudent(String studentId) {
-        if (enrolledStudents.remove(studentId)) {
-            this.updatedAt = LocalDateTime.now();
+        int count;
+        synchronized (this) {
+            if (!enrolledStudents.remove(studentId)) {
+                return;
+            }
+            touch();
+            count = enrolledStudents.size();
         }
+        fire(listener -> listener.enrollmentChanged(this, count + 1, count));
+    }
+
+    public synchronized Set<String> getEnrolledStudents() {
+        return new HashSet<>(enrolledStudents); // Defensive copy, consistent with concurrent enrollments
     }
 
-    public Set<String> getEnrolledStudents() {
-        return new HashSet<>(enrolledStudents); // Defensive copy
+    /**
+     * Read-only live view of the enrolled student IDs, for iteration without a copy
+     * Must not be held across enrollment changes
+     */
+    public Set<String> enrolledStudentsView() {
+        return enrolledStudentsView;
     }
 
     public boolean isStudentEnrolled(String studentId) {
@@ -227,6 +414,52 @@ public class Course {
         return enrolledStudents.size() >= maxEnrollment;
     }
 
+    // Grade distribution, updated by the service layer whenever a grade changes
+    public void recordGradeChange(Grade previous, Grade current) {
+        if (previous == current) return;
+        if (previous != null) {
+            gradeHistogram.get(previous).decrement();
+        }
+        if (current != null) {
+            gradeHistogram.get(current).increment();
+        }
+    }
+
+    public EnumMap<Grade, Long> getGradeDistribution() {
+        EnumMap<Grade, Long> distribution = new EnumMap<>(Grade.class);
+        gradeHistogram.forEach((grade, count) -> distribution.put(grade, count.sum()));
+        return distribution;
+    }
+
+    public long getGradeCount(Grade grade) {
+        return gradeHistogram.get(grade).sum();
+    }
+
+    public long getGradedCount() {
+        long total = 0;
+        for (LongAdder count : gradeHistogram.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    // Mean grade points over graded students (fixed number of buckets, so O(1))
+    public double getMeanGradePoints() {
+        long total = 0;
+        double points = 0;
+        for (Map.Entry<Grade, LongAdder> entry : gradeHistogram.entrySet()) {
+            long count = entry.getValue().sum();
+            total += count;
+            points += count * entry.getKey().getGradePoints();
+        }
+        return total == 0 ? 0.0 : points / total;
+    }
+
+    public double getPassRate() {
+        long total = getGradedCount();
+        return total == 0 ? 0.0 : (double) (total - getGradeCount(Grade.F)) / total;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
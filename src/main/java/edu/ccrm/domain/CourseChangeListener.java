@@ -0,0 +1,30 @@
+package edu.ccrm.domain;
+
+import java.util.List;
+
+/**
+ * Callback for a course's instructor, text, meeting slots, enrollment, department, semester and capacity changes
+ */
+public interface CourseChangeListener {
+
+    default void instructorChanged(Course course, String previousInstructorId, String currentInstructorId) {
+    }
+
+    default void textChanged(Course course) {
+    }
+
+    default void meetingSlotsChanged(Course course, List<MeetingSlot> previousSlots, List<MeetingSlot> currentSlots) {
+    }
+
+    default void enrollmentChanged(Course course, int previousCount, int currentCount) {
+    }
+
+    default void departmentChanged(Course course, String previousDepartment, String currentDepartment) {
+    }
+
+    default void semesterChanged(Course course, String previousSemester, String currentSemester) {
+    }
+
+    default void maxEnrollmentChanged(Course course, int previousMaxEnrollment, int currentMaxEnrollment) {
+    }
+}
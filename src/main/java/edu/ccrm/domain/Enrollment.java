@@ -1,5 +1,7 @@
 package edu.ccrm.domain;
 
+import edu.ccrm.util.Clocks;
+import edu.ccrm.util.StringDictionary;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
@@ -11,22 +13,33 @@ public class Enrollment {
     private String enrollmentId;
     private String studentId;
     private String courseId;
-    private LocalDateTime enrollmentDate;
+    private long enrollmentDateMillis;
     private Grade grade;
     private boolean isCompleted;
+    private boolean dropped;
     private String semester;
 
     public Enrollment(String enrollmentId, String studentId, String courseId, String semester) {
         this.enrollmentId = Objects.requireNonNull(enrollmentId, "Enrollment ID cannot be null");
         this.studentId = Objects.requireNonNull(studentId, "Student ID cannot be null");
         this.courseId = Objects.requireNonNull(courseId, "Course ID cannot be null");
-        this.semester = Objects.requireNonNull(semester, "Semester cannot be null");
-        this.enrollmentDate = LocalDateTime.now();
+        this.semester = StringDictionary.SEMESTERS.canonical(
+            Objects.requireNonNull(semester, "Semester cannot be null"));
+        this.enrollmentDateMillis = Clocks.now();
         this.isCompleted = false;
 
         assert !enrollmentId.trim().isEmpty() : "Enrollment ID cannot be empty";
     }
 
+    // Restores a completed enrollment with its original date (e.g. from an archive segment)
+    public Enrollment(String enrollmentId, String studentId, String courseId, String semester,
+                      long enrollmentDateMillis, Grade grade) {
+        this(enrollmentId, studentId, courseId, semester);
+        this.enrollmentDateMillis = enrollmentDateMillis;
+        this.grade = grade;
+        this.isCompleted = true;
+    }
+
     // Getters and setters
     public String getEnrollmentId() { return enrollmentId; }
 
@@ -34,7 +47,9 @@ public class Enrollment {
 
     public String getCourseId() { return courseId; }
 
-    public LocalDateTime getEnrollmentDate() { return enrollmentDate; }
+    public LocalDateTime getEnrollmentDate() { return Clocks.toLocalDateTime(enrollmentDateMillis); }
+
+    public long getEnrollmentDateMillis() { return enrollmentDateMillis; }
 
     public Grade getGrade() { return grade; }
 
@@ -51,10 +66,22 @@ public class Enrollment {
         this.isCompleted = completed;
     }
 
+    public boolean isDropped() { return dropped; }
+
+    /**
+     * Closes the enrollment without a grade; it stays in the history as dropped
+     */
+    public void markDropped() {
+        this.dropped = true;
+        this.grade = null;
+        this.isCompleted = true;
+    }
+
     public String getSemester() { return semester; }
 
     public void setSemester(String semester) {
-        this.semester = Objects.requireNonNull(semester, "Semester cannot be null");
+        this.semester = StringDictionary.SEMESTERS.canonical(
+            Objects.requireNonNull(semester, "Semester cannot be null"));
     }
 
     public boolean isPassing() {
@@ -76,7 +103,7 @@ public class Enrollment {
 
     @Override
     public String toString() {
-        return String.format("Enrollment{id='%s', student='%s', course='%s', semester='%s', grade=%s, completed=%s}", 
-                           enrollmentId, studentId, courseId, semester, grade, isCompleted);
+        return String.format("Enrollment{id='%s', student='%s', course='%s', semester='%s', grade=%s, completed=%s, dropped=%s}", 
+                           enrollmentId, studentId, courseId, semester, grade, isCompleted, dropped);
     }
 }
\ No newline at end of file
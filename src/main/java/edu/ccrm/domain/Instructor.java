@@ -1,5 +1,6 @@
 package edu.ccrm.domain;
 
+import edu.ccrm.util.StringDictionary;
 import java.util.*;
 
 /**
@@ -16,8 +17,9 @@ public class Instructor extends Person {
                      String department, String specialization) {
         super(id, name, email);
         this.employeeId = Objects.requireNonNull(employeeId, "Employee ID cannot be null");
-        this.department = Objects.requireNonNull(department, "Department cannot be null");
-        this.specialization = specialization;
+        this.department = StringDictionary.DEPARTMENTS.canonical(
+            Objects.requireNonNull(department, "Department cannot be null"));
+        this.specialization = StringDictionary.SPECIALIZATIONS.canonical(specialization);
         this.assignedCourses = new HashSet<>();
 
         assert !employeeId.trim().isEmpty() : "Employee ID cannot be empty";
@@ -41,28 +43,29 @@ public class Instructor extends Person {
 
     public String getDepartment() { return department; }
 
-    public void setDepartment(String department) {
-        this.department = Objects.requireNonNull(department, "Department cannot be null");
-        this.updatedAt = java.time.LocalDateTime.now();
+    public synchronized void setDepartment(String department) {
+        this.department = StringDictionary.DEPARTMENTS.canonical(
+            Objects.requireNonNull(department, "Department cannot be null"));
+        touch();
     }
 
     public String getSpecialization() { return specialization; }
 
-    public void setSpecialization(String specialization) {
-        this.specialization = specialization;
-        this.updatedAt = java.time.LocalDateTime.now();
+    public synchronized void setSpecialization(String specialization) {
+        this.specialization = StringDictionary.SPECIALIZATIONS.canonical(specialization);
+        touch();
     }
 
     // Course assignment methods
-    public void assignCourse(String courseId) {
+    public synchronized void assignCourse(String courseId) {
         Objects.requireNonNull(courseId, "Course ID cannot be null");
         assignedCourses.add(courseId);
-        this.updatedAt = java.time.LocalDateTime.now();
+        touch();
     }
 
-    public void unassignCourse(String courseId) {
+    public synchronized void unassignCourse(String courseId) {
         assignedCourses.remove(courseId);
-        this.updatedAt = java.time.LocalDateTime.now();
+        touch();
     }
 
     public Set<String> getAssignedCourses() {
@@ -0,0 +1,93 @@
+package edu.ccrm.domain;
+
+import edu.ccrm.util.StringDictionary;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Immutable weekly meeting time of a course: day, start/end time and room
+ * Times are half-open [start, end), so back-to-back slots do not clash
+ */
+public final class MeetingSlot {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private final DayOfWeek day;
+    private final LocalTime start;
+    private final LocalTime end;
+    private final String room; // Canonical instance from StringDictionary.ROOMS
+
+    public MeetingSlot(DayOfWeek day, LocalTime start, LocalTime end, String room) {
+        this.day = Objects.requireNonNull(day, "Day cannot be null");
+        this.start = Objects.requireNonNull(start, "Start time cannot be null");
+        this.end = Objects.requireNonNull(end, "End time cannot be null");
+        this.room = StringDictionary.ROOMS.canonical(Objects.requireNonNull(room, "Room cannot be null"));
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Start time must be before end time: " + start + "-" + end);
+        }
+    }
+
+    /**
+     * Parses the toString() form, e.g. "MON 09:00-10:30 R101"
+     */
+    public static MeetingSlot parse(String text) {
+        Objects.requireNonNull(text, "Meeting slot cannot be null");
+        String[] parts = text.trim().split("\\s+");
+        String[] times = parts.length == 3 ? parts[1].split("-") : new String[0];
+        if (times.length != 2) {
+            throw new IllegalArgumentException("Expected 'DAY HH:MM-HH:MM ROOM' but got: " + text);
+        }
+        return new MeetingSlot(parseDay(parts[0]), LocalTime.parse(times[0]), LocalTime.parse(times[1]), parts[2]);
+    }
+
+    private static DayOfWeek parseDay(String text) {
+        String upper = text.toUpperCase(Locale.ROOT);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().startsWith(upper) && upper.length() >= 3) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("Unknown day: " + text);
+    }
+
+    public DayOfWeek getDay() { return day; }
+
+    public LocalTime getStart() { return start; }
+
+    public LocalTime getEnd() { return end; }
+
+    public String getRoom() { return room; }
+
+    // Position within the week, in minutes from Monday 00:00
+    public int getStartMinuteOfWeek() {
+        return (day.getValue() - 1) * MINUTES_PER_DAY + start.toSecondOfDay() / 60;
+    }
+
+    public int getEndMinuteOfWeek() {
+        return (day.getValue() - 1) * MINUTES_PER_DAY + end.toSecondOfDay() / 60;
+    }
+
+    public boolean overlaps(MeetingSlot other) {
+        return day == other.day && start.isBefore(other.end) && other.start.isBefore(end);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        MeetingSlot slot = (MeetingSlot) obj;
+        return day == slot.day && start.equals(slot.start) && end.equals(slot.end) && room.equals(slot.room);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(day, start, end, room);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s-%s %s", day.name().substring(0, 3), start, end, room);
+    }
+}
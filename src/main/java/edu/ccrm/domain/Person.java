@@ -1,6 +1,9 @@
 package edu.ccrm.domain;
 
+import edu.ccrm.util.Clocks;
+import edu.ccrm.util.ValidationUtils;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -11,19 +14,26 @@ public abstract class Person {
     protected String id;
     protected String name;
     protected String email;
-    protected LocalDateTime createdAt;
-    protected LocalDateTime updatedAt;
+    protected long createdAtMillis; // Epoch millis, exposed as LocalDateTime by the getters
+    protected long updatedAtMillis;
+    // Incremented on every mutation, for optimistic concurrency. Writers hold this object's
+    // monitor so increments are atomic; volatile so readers need no lock
+    protected volatile long version;
+
+    private static final PersonChangeListener[] NO_LISTENERS = new PersonChangeListener[0];
+    // Copy-on-write array rather than a list, so a million students without listeners share one empty array
+    private volatile PersonChangeListener[] listeners = NO_LISTENERS;
 
     public Person(String id, String name, String email) {
         this.id = Objects.requireNonNull(id, "ID cannot be null");
         this.name = Objects.requireNonNull(name, "Name cannot be null");
         this.email = Objects.requireNonNull(email, "Email cannot be null");
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.createdAtMillis = Clocks.now();
+        this.updatedAtMillis = createdAtMillis;
 
         // Assert ID is not empty
         assert !id.trim().isEmpty() : "ID cannot be empty";
-        assert validateEmail(email) : "Invalid email format";
+        assert ValidationUtils.isValidEmail(email) : "Invalid email format";
     }
 
     // Abstract method to be implemented by subclasses
@@ -37,26 +47,75 @@ public abstract class Person {
     public String getName() { return name; }
 
     public void setName(String name) {
-        this.name = Objects.requireNonNull(name, "Name cannot be null");
-        this.updatedAt = LocalDateTime.now();
+        Objects.requireNonNull(name, "Name cannot be null");
+        String previous;
+        synchronized (this) {
+            previous = this.name;
+            this.name = name;
+            touch();
+        }
+        // Listeners run after the monitor is released, as they take service locks
+        if (!previous.equals(name)) {
+            for (PersonChangeListener listener : listeners) {
+                listener.nameChanged(this, previous, name);
+            }
+        }
     }
 
     public String getEmail() { return email; }
 
     public void setEmail(String email) {
         Objects.requireNonNull(email, "Email cannot be null");
-        assert validateEmail(email) : "Invalid email format";
-        this.email = email;
-        this.updatedAt = LocalDateTime.now();
+        assert ValidationUtils.isValidEmail(email) : "Invalid email format";
+        String previous;
+        synchronized (this) {
+            previous = this.email;
+            this.email = email;
+            touch();
+        }
+        if (!previous.equals(email)) {
+            for (PersonChangeListener listener : listeners) {
+                listener.emailChanged(this, previous, email);
+            }
+        }
     }
 
-    public LocalDateTime getCreatedAt() { return createdAt; }
+    // Change listeners, used by the service layer to keep its indexes in step
+    public synchronized void addChangeListener(PersonChangeListener listener) {
+        Objects.requireNonNull(listener, "Listener cannot be null");
+        PersonChangeListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
+
+    public synchronized void removeChangeListener(PersonChangeListener listener) {
+        PersonChangeListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                PersonChangeListener[] updated = new PersonChangeListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                listeners = updated.length == 0 ? NO_LISTENERS : updated;
+                return;
+            }
+        }
+    }
+
+    public LocalDateTime getCreatedAt() { return Clocks.toLocalDateTime(createdAtMillis); }
+
+    public LocalDateTime getUpdatedAt() { return Clocks.toLocalDateTime(updatedAtMillis); }
+
+    public long getCreatedAtMillis() { return createdAtMillis; }
+
+    public long getUpdatedAtMillis() { return updatedAtMillis; }
 
-    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public long getVersion() { return version; }
 
-    // Validation helper method
-    private boolean validateEmail(String email) {
-        return email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+    // Records a mutation using the cached application clock and bumps the version;
+    // callers hold this object's monitor
+    protected void touch() {
+        this.updatedAtMillis = Clocks.now();
+        this.version++;
     }
 
     @Override
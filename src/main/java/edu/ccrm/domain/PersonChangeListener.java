@@ -0,0 +1,13 @@
+package edu.ccrm.domain;
+
+/**
+ * Callback for a person's name and email changes
+ */
+public interface PersonChangeListener {
+
+    default void nameChanged(Person person, String previousName, String currentName) {
+    }
+
+    default void emailChanged(Person person, String previousEmail, String currentEmail) {
+    }
+}
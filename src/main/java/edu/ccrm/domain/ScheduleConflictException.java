@@ -0,0 +1,23 @@
+package edu.ccrm.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Custom exception for timetable clashes
+ * Thrown when a student's courses overlap in time or a room is double-booked
+ */
+public class ScheduleConflictException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> conflictingCourseIds;
+
+    public ScheduleConflictException(String message, List<String> conflictingCourseIds) {
+        super(message);
+        this.conflictingCourseIds = new ArrayList<>(conflictingCourseIds);
+    }
+
+    public List<String> getConflictingCourseIds() {
+        return new ArrayList<>(conflictingCourseIds); // Defensive copy
+    }
+}
@@ -0,0 +1,27 @@
+package edu.ccrm.domain;
+
+/**
+ * Custom exception for optimistic concurrency conflicts
+ * Thrown when an update was based on an older version of a record; the caller
+ * should re-read the record and retry
+ */
+public class StaleVersionException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final String recordId;
+    private final long expectedVersion;
+    private final long actualVersion;
+
+    public StaleVersionException(String recordId, long expectedVersion, long actualVersion) {
+        super(String.format("Stale update for %s: expected version %d but found %d",
+                           recordId, expectedVersion, actualVersion));
+        this.recordId = recordId;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public String getRecordId() { return recordId; }
+    public long getExpectedVersion() { return expectedVersion; }
+    public long getActualVersion() { return actualVersion; }
+    public boolean isRetryable() { return true; }
+}
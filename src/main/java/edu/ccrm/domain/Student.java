@@ -1,5 +1,6 @@
 package edu.ccrm.domain;
 
+import edu.ccrm.util.StringDictionary;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -8,22 +9,34 @@ import java.util.stream.Collectors;
  * Demonstrates inheritance, encapsulation, and polymorphism
  */
 public class Student extends Person {
+    private static final int DEFAULT_COURSE_CREDITS = 3;
+
     private String registrationNumber;
     private int year;
-    private String department;
+    private String department; // Canonical instance from StringDictionary.DEPARTMENTS
+    private int departmentCode;
     private boolean isActive;
     private Set<String> enrolledCourses; // Course IDs
     private Map<String, Grade> courseGrades; // Course ID -> Grade mapping
+    private Map<String, CourseLoad> courseLoads; // Course ID -> credits and semester at enrollment
+
+    // Running credit-weighted sums, in tenths of a grade point, so GPA reads are O(1)
+    private long weightedPoints;
+    private int gradedCredits;
+    private int failedCourses;
+    private Map<String, long[]> semesterSums; // Semester -> {weighted points, graded credits}
 
     public Student(String id, String name, String email, String registrationNumber, 
                   int year, String department) {
         super(id, name, email);
         this.registrationNumber = Objects.requireNonNull(registrationNumber, "Registration number cannot be null");
         this.year = year;
-        this.department = Objects.requireNonNull(department, "Department cannot be null");
+        assignDepartment(department);
         this.isActive = true;
         this.enrolledCourses = new HashSet<>();
         this.courseGrades = new HashMap<>();
+        this.courseLoads = new HashMap<>();
+        this.semesterSums = new HashMap<>();
 
         // Assertions for validation
         assert year > 0 && year <= 4 : "Year must be between 1 and 4";
@@ -48,57 +61,105 @@ public class Student extends Person {
 
     public int getYear() { return year; }
 
-    public void setYear(int year) {
+    public synchronized void setYear(int year) {
         assert year > 0 && year <= 4 : "Year must be between 1 and 4";
         this.year = year;
-        this.updatedAt = java.time.LocalDateTime.now();
+        touch();
     }
 
     public String getDepartment() { return department; }
 
-    public void setDepartment(String department) {
-        this.department = Objects.requireNonNull(department, "Department cannot be null");
-        this.updatedAt = java.time.LocalDateTime.now();
+    public int getDepartmentCode() { return departmentCode; }
+
+    public synchronized void setDepartment(String department) {
+        assignDepartment(department);
+        touch();
+    }
+
+    private void assignDepartment(String department) {
+        Objects.requireNonNull(department, "Department cannot be null");
+        this.departmentCode = StringDictionary.DEPARTMENTS.encode(department);
+        this.department = StringDictionary.DEPARTMENTS.decode(departmentCode);
     }
 
     public boolean isActive() { return isActive; }
 
-    public void setActive(boolean active) {
+    public synchronized void setActive(boolean active) {
         this.isActive = active;
-        this.updatedAt = java.time.LocalDateTime.now();
+        touch();
     }
 
     // Course enrollment methods
     public void enrollInCourse(String courseId) {
+        enrollInCourse(courseId, DEFAULT_COURSE_CREDITS, null);
+    }
+
+    // Records the course credits and semester so the GPA can be credit-weighted
+    public synchronized void enrollInCourse(String courseId, int credits, String semester) {
         Objects.requireNonNull(courseId, "Course ID cannot be null");
         enrolledCourses.add(courseId);
-        this.updatedAt = java.time.LocalDateTime.now();
+        Grade previous = courseGrades.remove(courseId);
+        if (previous != null) {
+            // Retaking a course replaces the earlier attempt
+            removeGradeContribution(courseId, previous);
+        }
+        courseLoads.put(courseId, new CourseLoad(credits, StringDictionary.SEMESTERS.canonical(semester)));
+        touch();
     }
 
-    public void unenrollFromCourse(String courseId) {
+    public synchronized void unenrollFromCourse(String courseId) {
         enrolledCourses.remove(courseId);
-        courseGrades.remove(courseId);
-        this.updatedAt = java.time.LocalDateTime.now();
+        Grade previous = courseGrades.remove(courseId);
+        if (previous != null) {
+            removeGradeContribution(courseId, previous);
+        }
+        courseLoads.remove(courseId);
+        touch();
+    }
+
+    // Moves a finished course out of the active course load, keeping its grade
+    public synchronized void completeCourse(String courseId) {
+        if (enrolledCourses.remove(courseId)) {
+            touch();
+        }
     }
 
     public Set<String> getEnrolledCourses() {
         return new HashSet<>(enrolledCourses); // Defensive copy
     }
 
+    public int getEnrolledCourseCount() {
+        return enrolledCourses.size();
+    }
+
     public boolean isEnrolledIn(String courseId) {
         return enrolledCourses.contains(courseId);
     }
 
     // Grade management methods
-    public void setGrade(String courseId, Grade grade) {
+    public synchronized void setGrade(String courseId, Grade grade) {
         if (enrolledCourses.contains(courseId)) {
-            courseGrades.put(courseId, grade);
-            this.updatedAt = java.time.LocalDateTime.now();
+            putGrade(courseId, grade);
+            touch();
         } else {
             throw new IllegalArgumentException("Student is not enrolled in course: " + courseId);
         }
     }
 
+    /**
+     * Applies several grades at once, recording a single mutation
+     * All courses must already be enrolled; nothing is applied otherwise
+     */
+    public synchronized void applyGrades(Map<String, Grade> grades) {
+        for (String courseId : grades.keySet()) {
+            if (!enrolledCourses.contains(courseId)) {
+                throw new IllegalArgumentException("Student is not enrolled in course: " + courseId);
+            }
+        }
+        grades.forEach(this::putGrade);
+        touch();
+    }
+
     public Grade getGrade(String courseId) {
         return courseGrades.get(courseId);
     }
@@ -107,15 +168,82 @@ public class Student extends Person {
         return new HashMap<>(courseGrades); // Defensive copy
     }
 
-    // GPA calculation using streams and lambdas
+    /**
+     * Credit-weighted cumulative GPA (CGPA) over all graded courses
+     * Read from running sums maintained on every grade change, so this is O(1)
+     */
     public double calculateGPA() {
-        if (courseGrades.isEmpty()) return 0.0;
+        return gradedCredits == 0 ? 0.0 : weightedPoints / (gradedCredits * 10.0);
+    }
 
-        return courseGrades.values()
-                .stream()
-                .mapToDouble(Grade::getGradePoints)
-                .average()
-                .orElse(0.0);
+    /**
+     * Credit-weighted GPA for one semester (SGPA), 0.0 if nothing is graded in it
+     */
+    public double calculateSGPA(String semester) {
+        long[] sums = semesterSums.get(semester);
+        return sums == null || sums[1] == 0 ? 0.0 : sums[0] / (sums[1] * 10.0);
+    }
+
+    /**
+     * SGPA of every semester with at least one graded course
+     */
+    public Map<String, Double> getSemesterGPAs() {
+        Map<String, Double> result = new TreeMap<>();
+        semesterSums.forEach((semester, sums) -> {
+            if (sums[1] > 0) {
+                result.put(semester, sums[0] / (sums[1] * 10.0));
+            }
+        });
+        return result;
+    }
+
+    public int getGradedCredits() { return gradedCredits; }
+
+    public int getFailedCourseCount() { return failedCourses; }
+
+    // Credits of the courses currently in the load, as recorded at enrollment
+    public int getEnrolledCredits() {
+        int total = 0;
+        for (String courseId : enrolledCourses) {
+            total += getCourseCredits(courseId);
+        }
+        return total;
+    }
+
+    public int getCourseCredits(String courseId) {
+        CourseLoad load = courseLoads.get(courseId);
+        return load != null ? load.credits : DEFAULT_COURSE_CREDITS;
+    }
+
+    // Running-sum maintenance for the credit-weighted GPA
+    private void putGrade(String courseId, Grade grade) {
+        Grade previous = courseGrades.put(courseId, grade);
+        if (previous != null) {
+            removeGradeContribution(courseId, previous);
+        }
+        addGradeContribution(courseId, grade, 1);
+    }
+
+    private void removeGradeContribution(String courseId, Grade grade) {
+        addGradeContribution(courseId, grade, -1);
+    }
+
+    private void addGradeContribution(String courseId, Grade grade, int sign) {
+        CourseLoad load = courseLoads.get(courseId);
+        int credits = load != null ? load.credits : DEFAULT_COURSE_CREDITS;
+        long points = Math.round(grade.getGradePoints() * 10) * credits;
+
+        weightedPoints += sign * points;
+        gradedCredits += sign * credits;
+        if (!grade.isPassing()) {
+            failedCourses += sign;
+        }
+
+        if (load != null && load.semester != null) {
+            long[] sums = semesterSums.computeIfAbsent(load.semester, k -> new long[2]);
+            sums[0] += sign * points;
+            sums[1] += sign * credits;
+        }
     }
 
     // Get passed courses using functional programming
@@ -127,6 +255,17 @@ public class Student extends Person {
                 .collect(Collectors.toSet());
     }
 
+    // Credits and semester captured when the student enrolled in a course
+    private static final class CourseLoad {
+        final int credits;
+        final String semester;
+
+        CourseLoad(int credits, String semester) {
+            this.credits = credits;
+            this.semester = semester;
+        }
+    }
+
     @Override
     public String toString() {
         return String.format("Student{id='%s', name='%s', regNum='%s', year=%d, dept='%s', active=%s, courses=%d}", 
@@ -0,0 +1,102 @@
+package edu.ccrm.event;
+
+import edu.ccrm.domain.Grade;
+import edu.ccrm.util.Clocks;
+import java.util.Objects;
+
+/**
+ * Immutable change event published by the service layer
+ * A single compact class with a Type tag, rather than a class per event, keeps each
+ * publication to one small allocation; fields that do not apply to a type are null
+ */
+public final class DomainEvent {
+
+    /**
+     * Kind of change that happened
+     */
+    public enum Type {
+        STUDENT_CREATED,
+        STUDENT_UPDATED,
+        DEPARTMENT_CHANGED,
+        STUDENT_ACTIVATED,
+        STUDENT_DEACTIVATED,
+        STUDENT_REMOVED,
+        STUDENTS_LOADED,
+        ENROLLED,
+        UNENROLLED,
+        GRADE_ASSIGNED,
+        SEMESTER_ARCHIVED
+    }
+
+    private final Type type;
+    private final String studentId;
+    private final String courseId;
+    private final String oldValue;
+    private final String newValue;
+    private final Grade previousGrade;
+    private final Grade grade;
+    private final long timestampMillis;
+
+    private DomainEvent(Type type, String studentId, String courseId, String oldValue, String newValue,
+                        Grade previousGrade, Grade grade) {
+        this.type = Objects.requireNonNull(type, "Event type cannot be null");
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.previousGrade = previousGrade;
+        this.grade = grade;
+        this.timestampMillis = Clocks.now();
+    }
+
+    // Factory methods for each event shape
+    public static DomainEvent studentEvent(Type type, String studentId) {
+        return new DomainEvent(type, studentId, null, null, null, null, null);
+    }
+
+    public static DomainEvent departmentChanged(String studentId, String oldDepartment, String newDepartment) {
+        return new DomainEvent(Type.DEPARTMENT_CHANGED, studentId, null, oldDepartment, newDepartment, null, null);
+    }
+
+    public static DomainEvent enrolled(String studentId, String courseId) {
+        return new DomainEvent(Type.ENROLLED, studentId, courseId, null, null, null, null);
+    }
+
+    public static DomainEvent unenrolled(String studentId, String courseId) {
+        return new DomainEvent(Type.UNENROLLED, studentId, courseId, null, null, null, null);
+    }
+
+    public static DomainEvent gradeAssigned(String studentId, String courseId, Grade previousGrade, Grade grade) {
+        return new DomainEvent(Type.GRADE_ASSIGNED, studentId, courseId, null, null, previousGrade, grade);
+    }
+
+    public static DomainEvent studentsLoaded(int count) {
+        return new DomainEvent(Type.STUDENTS_LOADED, null, null, null, String.valueOf(count), null, null);
+    }
+
+    public static DomainEvent semesterArchived(String semester) {
+        return new DomainEvent(Type.SEMESTER_ARCHIVED, null, null, null, semester, null, null);
+    }
+
+    public Type getType() { return type; }
+
+    public String getStudentId() { return studentId; }
+
+    public String getCourseId() { return courseId; }
+
+    public String getOldValue() { return oldValue; }
+
+    public String getNewValue() { return newValue; }
+
+    public Grade getPreviousGrade() { return previousGrade; }
+
+    public Grade getGrade() { return grade; }
+
+    public long getTimestampMillis() { return timestampMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("DomainEvent{type=%s, student='%s', course='%s', old='%s', new='%s', grade=%s}",
+                           type, studentId, courseId, oldValue, newValue, grade);
+    }
+}
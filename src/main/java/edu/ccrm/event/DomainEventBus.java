@@ -0,0 +1,233 @@
+package edu.ccrm.event;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lightweight publish/subscribe bus for domain change events
+ * Synchronous listeners run on the publishing thread. Asynchronous listeners are fed
+ * from a fixed-size ring buffer drained by one daemon dispatcher thread. Services
+ * publish while holding their own locks, so a publisher never waits for the
+ * dispatcher: when the ring is full the event is dropped for the asynchronous
+ * listeners and counted, which keeps memory bounded without risking a deadlock.
+ * The dispatcher then calls overflowed at the point of the gap, so those listeners
+ * can resynchronize instead of silently drifting
+ */
+public class DomainEventBus {
+
+    private static final int DEFAULT_RING_SIZE = 1024;
+
+    private final List<DomainEventListener> syncListeners = new CopyOnWriteArrayList<>();
+    private final List<DomainEventListener> asyncListeners = new CopyOnWriteArrayList<>();
+
+    // Ring buffer state, guarded by lock
+    private final DomainEvent[] ring;
+    private final int mask;
+    private long head; // Next slot to read
+    private long tail; // Next slot to write
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private long dropped; // Events the asynchronous listeners missed because the ring was full
+    private long gapPosition; // Ring position the oldest unreported drop precedes
+    private long gapSize; // Drops not yet reported to the asynchronous listeners
+    private Thread dispatcher;
+    private volatile boolean closed;
+
+    public DomainEventBus() {
+        this(DEFAULT_RING_SIZE);
+    }
+
+    public DomainEventBus(int ringSize) {
+        if (ringSize <= 0 || Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("Ring size must be a positive power of two: " + ringSize);
+        }
+        this.ring = new DomainEvent[ringSize];
+        this.mask = ringSize - 1;
+    }
+
+    /**
+     * Registers a listener invoked on the publishing thread
+     */
+    public void subscribe(DomainEventListener listener) {
+        syncListeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+    }
+
+    /**
+     * Registers a listener invoked on the dispatcher thread, in publication order
+     */
+    public synchronized void subscribeAsync(DomainEventListener listener) {
+        asyncListeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+        if (dispatcher == null && !closed) {
+            dispatcher = new Thread(this::dispatchLoop, "ccrm-event-dispatcher");
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+        }
+    }
+
+    public void unsubscribe(DomainEventListener listener) {
+        syncListeners.remove(listener);
+        asyncListeners.remove(listener);
+    }
+
+    /**
+     * True if anyone is listening; publishers can skip building events otherwise
+     */
+    public boolean hasListeners() {
+        return !syncListeners.isEmpty() || !asyncListeners.isEmpty();
+    }
+
+    /**
+     * Publishes an event to all listeners
+     * A failing synchronous listener is reported and does not stop the others
+     */
+    public void publish(DomainEvent event) {
+        for (DomainEventListener listener : syncListeners) {
+            deliver(listener, event);
+        }
+        if (!asyncListeners.isEmpty() && !closed) {
+            enqueue(event);
+        }
+    }
+
+    /**
+     * Number of events not delivered to the asynchronous listeners because the ring was full
+     */
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every queued event, and any overflow notice, has been handed to the
+     * asynchronous listeners
+     */
+    public void flush() throws InterruptedException {
+        lock.lock();
+        try {
+            while ((head != tail || gapSize > 0) && !closed) {
+                notFull.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the dispatcher; events still queued are dropped
+     */
+    public void close() {
+        closed = true;
+        lock.lock();
+        try {
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(DomainEvent event) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (tail - head == ring.length) {
+                dropped++;
+                if (gapSize++ == 0) {
+                    gapPosition = tail;
+                }
+                return;
+            }
+            ring[(int) (tail & mask)] = event;
+            tail++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (true) {
+            DomainEvent event;
+            long missed = 0;
+            lock.lock();
+            try {
+                while (head == tail && !gapReached() && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                if (gapReached()) {
+                    // Drops after this point are merged into the same notice
+                    missed = gapSize;
+                    gapSize = 0;
+                }
+                event = null;
+                if (missed == 0) {
+                    int slot = (int) (head & mask);
+                    event = ring[slot];
+                    ring[slot] = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (missed > 0) {
+                for (DomainEventListener listener : asyncListeners) {
+                    notifyOverflow(listener, missed);
+                }
+                lock.lock();
+                try {
+                    notFull.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                continue;
+            }
+
+            for (DomainEventListener listener : asyncListeners) {
+                deliver(listener, event);
+            }
+
+            // Advance only after delivery so flush() waits for listeners to finish
+            lock.lock();
+            try {
+                head++;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Guarded by lock
+    private boolean gapReached() {
+        return gapSize > 0 && head == gapPosition;
+    }
+
+    private static void notifyOverflow(DomainEventListener listener, long missed) {
+        try {
+            listener.overflowed(missed);
+        } catch (RuntimeException e) {
+            System.err.println("Event listener failed to handle " + missed + " missed events: " + e.getMessage());
+        }
+    }
+
+    private static void deliver(DomainEventListener listener, DomainEvent event) {
+        try {
+            listener.onEvent(event);
+        } catch (RuntimeException e) {
+            System.err.println("Event listener failed for " + event.getType() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package edu.ccrm.event;
+
+/**
+ * Receives domain change events
+ */
+@FunctionalInterface
+public interface DomainEventListener {
+    void onEvent(DomainEvent event);
+
+    /**
+     * An asynchronous listener missed events because the bus's ring was full; it is
+     * called where the gap falls in the event order, and a listener that maintains
+     * state incrementally should rebuild it from the source of truth. Later events
+     * may already be reflected in that state. Defaults to a no-op
+     */
+    default void overflowed(long missedEvents) {
+    }
+}
@@ -4,11 +4,14 @@ import edu.ccrm.domain.*;
 import edu.ccrm.config.AppConfig;
 import java.nio.file.*;
 import java.nio.charset.StandardCharsets;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * File operations service using NIO.2 APIs
@@ -77,6 +80,36 @@ public class FileService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Streams rows to CSV, one line at a time; every field is escaped
+     */
+    public void exportRowsToCSV(List<String> header, Iterable<List<String>> rows, String filename)
+            throws IOException {
+        Path filePath = dataDirectory.resolve(filename);
+
+        int count = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(filePath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeCSVLine(writer, header);
+            for (List<String> row : rows) {
+                writeCSVLine(writer, row);
+                count++;
+            }
+        }
+
+        System.out.println(count + " rows exported to: " + filePath);
+    }
+
+    private void writeCSVLine(BufferedWriter writer, List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCSV(fields.get(i)));
+        }
+        writer.newLine();
+    }
+
     /**
      * Exports courses to CSV format
      */
@@ -84,7 +117,7 @@ public class FileService {
         Path filePath = dataDirectory.resolve(filename);
 
         List<String> lines = new ArrayList<>();
-        lines.add("CourseID,CourseCode,Title,Description,Credits,Department,Semester,InstructorID,MaxEnrollment,CurrentEnrollment");
+        lines.add("CourseID,CourseCode,Title,Description,Credits,Department,Semester,InstructorID,MaxEnrollment,CurrentEnrollment,MeetingSlots");
 
         lines.addAll(courses.stream()
                 .map(this::courseToCsvLine)
@@ -119,6 +152,24 @@ public class FileService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Streams grade rows (StudentID,CourseID,Grade) from a CSV file without loading it whole
+     * The header line is skipped; the caller must close the returned stream
+     */
+    public Stream<GradeRecord> streamGradesFromCSV(String filename) throws IOException {
+        Path filePath = dataDirectory.resolve(filename);
+
+        if (!Files.exists(filePath)) {
+            throw new IOException("File not found: " + filePath);
+        }
+
+        AtomicLong lineNumber = new AtomicLong(1);
+        return Files.lines(filePath, StandardCharsets.UTF_8)
+                .skip(1) // Skip header
+                .map(line -> csvLineToGradeRecord(lineNumber.incrementAndGet(), line))
+                .filter(Objects::nonNull);
+    }
+
     /**
      * Creates backup of data directory with timestamp
      */
@@ -217,6 +268,8 @@ public class FileService {
                            student.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
     }
 
+    // Department and semester columns are canonicalized by the domain constructors
+    // through StringDictionary, so each parsed row does not keep its own copy
     private Student csvLineToStudent(String line) {
         try {
             String[] parts = parseCSVLine(line);
@@ -239,7 +292,7 @@ public class FileService {
     }
 
     private String courseToCsvLine(Course course) {
-        return String.format("%s,%s,%s,%s,%d,%s,%s,%s,%d,%d",
+        return String.format("%s,%s,%s,%s,%d,%s,%s,%s,%d,%d,%s",
                            escapeCSV(course.getCourseId()),
                            escapeCSV(course.getCourseCode()),
                            escapeCSV(course.getTitle()),
@@ -249,7 +302,10 @@ public class FileService {
                            escapeCSV(course.getSemester()),
                            course.getInstructorId() != null ? escapeCSV(course.getInstructorId()) : "",
                            course.getMaxEnrollment(),
-                           course.getCurrentEnrollment());
+                           course.getCurrentEnrollment(),
+                           escapeCSV(course.getMeetingSlots().stream()
+                                   .map(MeetingSlot::toString)
+                                   .collect(Collectors.joining(";"))));
     }
 
     private Course csvLineToCourse(String line) {
@@ -269,6 +325,12 @@ public class FileService {
                 if (!parts[7].trim().isEmpty()) {
                     builder.instructorId(parts[7]);
                 }
+                // Optional trailing column, e.g. "MON 09:00-10:30 R101;WED 09:00-10:30 R101"
+                if (parts.length >= 11 && !parts[10].isBlank()) {
+                    for (String slot : parts[10].split(";")) {
+                        builder.meetingSlot(MeetingSlot.parse(slot));
+                    }
+                }
 
                 return builder.build();
             }
@@ -278,6 +340,18 @@ public class FileService {
         return null;
     }
 
+    private GradeRecord csvLineToGradeRecord(long lineNumber, String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        // Fast path for unquoted rows, which is what grade exports produce
+        String[] parts = line.indexOf('"') < 0 ? line.split(",", -1) : parseCSVLine(line);
+        return new GradeRecord(lineNumber,
+                               parts[0].trim(),
+                               parts.length > 1 ? parts[1].trim() : "",
+                               parts.length > 2 ? parts[2].trim() : "");
+    }
+
     private String escapeCSV(String value) {
         if (value == null) return "";
         if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
@@ -0,0 +1,33 @@
+package edu.ccrm.io;
+
+/**
+ * One parsed row of a grade import file (studentId, courseId, grade)
+ * The grade is kept as text so that validation can report bad values per row
+ */
+public final class GradeRecord {
+    private final long lineNumber;
+    private final String studentId;
+    private final String courseId;
+    private final String grade;
+
+    public GradeRecord(long lineNumber, String studentId, String courseId, String grade) {
+        this.lineNumber = lineNumber;
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.grade = grade;
+    }
+
+    public long getLineNumber() { return lineNumber; }
+
+    public String getStudentId() { return studentId; }
+
+    public String getCourseId() { return courseId; }
+
+    public String getGrade() { return grade; }
+
+    @Override
+    public String toString() {
+        return String.format("GradeRecord{line=%d, student='%s', course='%s', grade='%s'}",
+                           lineNumber, studentId, courseId, grade);
+    }
+}
@@ -0,0 +1,91 @@
+package edu.ccrm.service;
+
+import java.util.*;
+
+/**
+ * Per-pair outcome of a bulk enrollment
+ * Results are kept in request order so callers can line them up with their input
+ */
+public final class BulkEnrollmentReport {
+
+    /**
+     * Outcome of a single enrollment request
+     */
+    public enum Status {
+        ENROLLED,
+        STUDENT_NOT_FOUND,
+        COURSE_NOT_FOUND,
+        DUPLICATE,
+        CREDIT_LIMIT_EXCEEDED,
+        COURSE_FULL,
+        TIME_CLASH
+    }
+
+    /**
+     * Result line for one request
+     */
+    public static final class Result {
+        private final EnrollmentRequest request;
+        private final Status status;
+        private final String message;
+
+        Result(EnrollmentRequest request, Status status, String message) {
+            this.request = request;
+            this.status = status;
+            this.message = message;
+        }
+
+        public EnrollmentRequest getRequest() { return request; }
+
+        public Status getStatus() { return status; }
+
+        public String getMessage() { return message; }
+
+        public boolean isSuccess() { return status == Status.ENROLLED; }
+
+        @Override
+        public String toString() {
+            return String.format("%s -> %s%s", request, status, message != null ? " (" + message + ")" : "");
+        }
+    }
+
+    private final List<Result> results;
+    private final EnumMap<Status, Integer> counts = new EnumMap<>(Status.class);
+
+    BulkEnrollmentReport(List<Result> results) {
+        this.results = Collections.unmodifiableList(results);
+        for (Result result : results) {
+            counts.merge(result.getStatus(), 1, Integer::sum);
+        }
+    }
+
+    public List<Result> getResults() { return results; }
+
+    public int getCount(Status status) {
+        return counts.getOrDefault(status, 0);
+    }
+
+    public int getEnrolledCount() {
+        return getCount(Status.ENROLLED);
+    }
+
+    public int getRejectedCount() {
+        return results.size() - getEnrolledCount();
+    }
+
+    public List<Result> getFailures() {
+        List<Result> failures = new ArrayList<>();
+        for (Result result : results) {
+            if (!result.isSuccess()) {
+                failures.add(result);
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BulkEnrollmentReport{total=%d, enrolled=%d, rejected=%d, byStatus=%s}",
+                           results.size(), getEnrolledCount(), getRejectedCount(), counts);
+    }
+}
@@ -0,0 +1,31 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import java.util.Collection;
+
+/**
+ * Callback for changes to the course catalog as a whole
+ * Lets services that mirror catalog state (such as instructor course loads) stay
+ * correct however a course is added, removed, reloaded or reassigned. CourseService
+ * calls these after releasing its lock; every method defaults to a no-op
+ */
+public interface CatalogListener {
+
+    default void courseAdded(Course course) {
+    }
+
+    default void courseRemoved(Course course) {
+    }
+
+    default void coursesLoaded(Collection<Course> courses) {
+    }
+
+    default void instructorChanged(Course course, String previousInstructorId, String currentInstructorId) {
+    }
+
+    /**
+     * A catalog course's meeting slots or semester changed
+     */
+    default void scheduleChanged(Course course) {
+    }
+}
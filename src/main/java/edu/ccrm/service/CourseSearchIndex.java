@@ -0,0 +1,303 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.util.TextAnalyzer;
+import java.util.*;
+
+/**
+ * Inverted index over course titles and descriptions
+ * Terms come from TextAnalyzer; each posting holds a field-weighted term frequency
+ * (title terms count three times), and results are ranked BM25-style so rare
+ * terms and title matches score higher. Postings are hashed by term, with a
+ * separate sorted term dictionary so prefix queries are a range scan.
+ * Postings are parallel int arrays keyed by a per-document ordinal; re-indexing a
+ * course gives it a new ordinal and leaves the old postings dead until the next
+ * compaction, so edits never search posting lists. Not thread-safe; CourseService
+ * guards it
+ */
+public class CourseSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final double SATURATION = 1.2;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final NavigableSet<String> dictionary = new TreeSet<>(); // Sorted keys of postings
+    private final Map<String, Integer> ordinals = new HashMap<>(); // Course ID -> live ordinal
+    private String[] courseIds = new String[64];  // Ordinal -> course ID, null once dead
+    private String[][] documentTerms = new String[64][]; // Ordinal -> distinct terms
+    private int nextOrdinal;
+
+    /**
+     * Indexes a course, replacing whatever was indexed for it before
+     */
+    public void index(Course course) {
+        remove(course.getCourseId());
+
+        Map<String, Integer> weights = new HashMap<>();
+        for (String term : TextAnalyzer.terms(course.getTitle())) {
+            weights.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : TextAnalyzer.terms(course.getDescription())) {
+            weights.merge(term, 1, Integer::sum);
+        }
+
+        if (nextOrdinal == courseIds.length) {
+            grow();
+        }
+        int ordinal = nextOrdinal++;
+        courseIds[ordinal] = course.getCourseId();
+        documentTerms[ordinal] = weights.keySet().toArray(new String[0]);
+        ordinals.put(course.getCourseId(), ordinal);
+        weights.forEach((term, weight) -> {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                list = new PostingList();
+                postings.put(term, list);
+                dictionary.add(term);
+            }
+            list.add(ordinal, weight);
+        });
+    }
+
+    /**
+     * Removes a course from the index
+     */
+    public void remove(String courseId) {
+        Integer ordinal = ordinals.remove(courseId);
+        if (ordinal == null) {
+            return;
+        }
+        for (String term : documentTerms[ordinal]) {
+            PostingList list = postings.get(term);
+            if (list != null && --list.live == 0) {
+                postings.remove(term);
+                dictionary.remove(term);
+            }
+        }
+        courseIds[ordinal] = null;
+        documentTerms[ordinal] = null;
+    }
+
+    /**
+     * Ranked keyword search; a course matches if it contains any query term
+     */
+    public List<Hit> search(String query, int limit) {
+        Scores scores = new Scores(nextOrdinal);
+        for (String term : new LinkedHashSet<>(TextAnalyzer.terms(query))) {
+            accumulate(term, scores);
+        }
+        return top(scores, limit);
+    }
+
+    /**
+     * Search-as-you-type: every word but the last is a keyword, the last one also
+     * matches any indexed term it is a prefix of (e.g. "data struc")
+     */
+    public List<Hit> searchPrefix(String query, int limit) {
+        List<String> words = TextAnalyzer.prefixes(query);
+        if (words.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Scores scores = new Scores(nextOrdinal);
+        for (String term : new LinkedHashSet<>(TextAnalyzer.terms(String.join(" ", words.subList(0, words.size() - 1))))) {
+            accumulate(term, scores);
+        }
+
+        String prefix = words.get(words.size() - 1);
+        Set<String> expansions = new LinkedHashSet<>();
+        expansions.add(TextAnalyzer.stem(prefix));
+        for (String term : dictionary.subSet(prefix, true, prefix + Character.MAX_VALUE, true)) {
+            if (expansions.size() >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            expansions.add(term);
+        }
+        for (String term : expansions) {
+            accumulate(term, scores);
+        }
+        return top(scores, limit);
+    }
+
+    public int getCourseCount() {
+        return ordinals.size();
+    }
+
+    public int getTermCount() {
+        return postings.size();
+    }
+
+    public void clear() {
+        postings.clear();
+        dictionary.clear();
+        ordinals.clear();
+        courseIds = new String[64];
+        documentTerms = new String[64][];
+        nextOrdinal = 0;
+    }
+
+    private void accumulate(String term, Scores scores) {
+        PostingList list = postings.get(term);
+        if (list == null) {
+            return;
+        }
+        if (list.size > 2 * list.live) {
+            list.compact(courseIds);
+        }
+        int n = ordinals.size();
+        int df = list.live;
+        double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+        for (int i = 0; i < list.size; i++) {
+            int ordinal = list.ordinals[i];
+            if (courseIds[ordinal] != null) {
+                int weight = list.weights[i];
+                scores.add(ordinal, idf * weight / (weight + SATURATION));
+            }
+        }
+    }
+
+    // Best `limit` scores via a bounded min-heap, highest first, ties by course ID
+    private List<Hit> top(Scores scores, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::getScore).reversed()
+                                            .thenComparing(Hit::getCourseId);
+        PriorityQueue<Hit> best = new PriorityQueue<>(ranking.reversed());
+        for (int i = 0; i < scores.touchedCount; i++) {
+            int ordinal = scores.touched[i];
+            double score = scores.values[ordinal];
+            if (best.size() < limit || score >= best.peek().getScore()) {
+                best.add(new Hit(courseIds[ordinal], score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        List<Hit> result = new ArrayList<>(best);
+        result.sort(ranking);
+        return result;
+    }
+
+    private void grow() {
+        int live = ordinals.size();
+        if (live < nextOrdinal / 2) {
+            renumber();
+            if (nextOrdinal < courseIds.length) {
+                return;
+            }
+        }
+        courseIds = Arrays.copyOf(courseIds, courseIds.length * 2);
+        documentTerms = Arrays.copyOf(documentTerms, documentTerms.length * 2);
+    }
+
+    // Reclaims dead ordinals: renumbers live documents densely and rewrites the postings
+    private void renumber() {
+        int[] remap = new int[nextOrdinal];
+        int next = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (courseIds[ordinal] != null) {
+                remap[ordinal] = next;
+                courseIds[next] = courseIds[ordinal];
+                documentTerms[next] = documentTerms[ordinal];
+                ordinals.put(courseIds[next], next);
+                next++;
+            } else {
+                remap[ordinal] = -1;
+            }
+        }
+        Arrays.fill(courseIds, next, nextOrdinal, null);
+        Arrays.fill(documentTerms, next, nextOrdinal, null);
+        nextOrdinal = next;
+        for (PostingList list : postings.values()) {
+            list.remap(remap);
+        }
+    }
+
+    // Postings of one term as parallel (ordinal, weight) arrays; may hold dead ordinals
+    private static final class PostingList {
+        int[] ordinals = new int[4];
+        int[] weights = new int[4];
+        int size;
+        int live;
+
+        void add(int ordinal, int weight) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ordinals[size] = ordinal;
+            weights[size] = weight;
+            size++;
+            live++;
+        }
+
+        void compact(String[] courseIds) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (courseIds[ordinals[i]] != null) {
+                    ordinals[kept] = ordinals[i];
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+
+        void remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = remap[ordinals[i]];
+                if (ordinal >= 0) {
+                    ordinals[kept] = ordinal;
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+
+    // Score accumulator indexed by ordinal, remembering which entries were touched
+    private static final class Scores {
+        final double[] values;
+        int[] touched = new int[16];
+        int touchedCount;
+
+        Scores(int capacity) {
+            values = new double[capacity];
+        }
+
+        void add(int ordinal, double score) {
+            if (values[ordinal] == 0) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = ordinal;
+            }
+            values[ordinal] += score;
+        }
+    }
+
+    /**
+     * A matching course and its relevance score
+     */
+    public static final class Hit {
+        private final String courseId;
+        private final double score;
+
+        Hit(String courseId, double score) {
+            this.courseId = courseId;
+            this.score = score;
+        }
+
+        public String getCourseId() { return courseId; }
+
+        public double getScore() { return score; }
+
+        @Override
+        public String toString() {
+            return String.format("Hit{course='%s', score=%.3f}", courseId, score);
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.CourseChangeListener;
+import edu.ccrm.domain.MeetingSlot;
+import edu.ccrm.domain.ScheduleConflictException;
+import edu.ccrm.util.ComparatorUtils;
+import edu.ccrm.util.IntervalTree;
+import edu.ccrm.util.SortedView;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service class for course catalog operations
+ * The catalog and its secondary indexes (department, semester, instructor, course
+ * code) are concurrent maps, so lookups are O(1) and safe to share across threads.
+ * Mutations go through this service, which keeps the indexes in step; the
+ * indexes additionally listen to each course, so they stay correct when a setter
+ * such as Course.setInstructorId or Course.setSemester is called directly. Room bookings are kept in one
+ * interval tree per room, so double-booking checks are O(log n), and titles and
+ * descriptions feed an inverted index for ranked keyword search. Orderings the UI
+ * asks for repeatedly are registered as sorted views kept current on every change.
+ * Catalog listeners hear about added, removed, reloaded and reassigned courses
+ */
+public class CourseService {
+
+    private final Map<String, Course> courses = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byDepartment = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> bySemester = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byInstructor = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byCourseCode = new ConcurrentHashMap<>();
+    private final Map<String, IntervalTree<String>> byRoom = new HashMap<>(); // Guarded by this
+    private final CourseSearchIndex searchIndex = new CourseSearchIndex(); // Guarded by this
+    private final Map<String, Course> readOnlyView = Collections.unmodifiableMap(courses);
+    private final CourseChangeListener indexListener = new IndexListener();
+    private final Map<Comparator<Course>, SortedView<Course, ?>> sortedViews = new HashMap<>();
+    private Course updating; // Course being re-indexed by updateCourse; its listener events are skipped
+    private final List<CatalogListener> catalogListeners = new CopyOnWriteArrayList<>();
+
+    public CourseService() {
+        sortedViews.put(ComparatorUtils.BY_ENROLLMENT, new SortedView<>(
+            Course::getCourseId, Course::getCurrentEnrollment, Comparator.<Integer>reverseOrder()));
+    }
+
+    /**
+     * Registers a listener for catalog-wide changes
+     */
+    public void addCatalogListener(CatalogListener listener) {
+        catalogListeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+    }
+
+    public void removeCatalogListener(CatalogListener listener) {
+        catalogListeners.remove(listener);
+    }
+
+    /**
+     * Adds a course to the catalog
+     */
+    public Course addCourse(Course course) {
+        Objects.requireNonNull(course, "Course cannot be null");
+        synchronized (this) {
+            if (courses.containsKey(course.getCourseId())) {
+                throw new IllegalArgumentException("Course with ID " + course.getCourseId() + " already exists");
+            }
+            List<String> clashes = findRoomConflicts(course);
+            if (!clashes.isEmpty()) {
+                throw new IllegalArgumentException("Course " + course.getCourseId()
+                    + " double-books a room with " + clashes);
+            }
+            courses.put(course.getCourseId(), course);
+            index(course);
+            course.addChangeListener(indexListener);
+        }
+        catalogListeners.forEach(listener -> listener.courseAdded(course));
+        return course;
+    }
+
+    /**
+     * Removes a course from the catalog
+     */
+    public Optional<Course> removeCourse(String courseId) {
+        Course course;
+        synchronized (this) {
+            course = courses.remove(courseId);
+            if (course == null) {
+                return Optional.empty();
+            }
+            course.removeChangeListener(indexListener);
+            unindex(course);
+        }
+        catalogListeners.forEach(listener -> listener.courseRemoved(course));
+        return Optional.of(course);
+    }
+
+    /**
+     * Applies changes to a course and re-indexes it
+     */
+    public Course updateCourse(String courseId, Consumer<Course> changes) {
+        Course course;
+        String previousInstructorId;
+        String previousSemester;
+        List<MeetingSlot> previousSlots;
+        synchronized (this) {
+            course = courses.get(courseId);
+            if (course == null) {
+                throw new IllegalArgumentException("Course not found: " + courseId);
+            }
+            previousInstructorId = course.getInstructorId();
+            previousSemester = course.getSemester();
+            previousSlots = course.getMeetingSlots();
+            unindex(course);
+            updating = course;
+            try {
+                changes.accept(course);
+            } finally {
+                updating = null;
+                index(course);
+            }
+        }
+        String currentInstructorId = course.getInstructorId();
+        if (!Objects.equals(previousInstructorId, currentInstructorId)) {
+            catalogListeners.forEach(listener ->
+                listener.instructorChanged(course, previousInstructorId, currentInstructorId));
+        }
+        if (!Objects.equals(previousSemester, course.getSemester())
+                || !previousSlots.equals(course.getMeetingSlots())) {
+            catalogListeners.forEach(listener -> listener.scheduleChanged(course));
+        }
+        return course;
+    }
+
+    /**
+     * Assigns (or clears, with null) the instructor of a course
+     */
+    public Course assignInstructor(String courseId, String instructorId) {
+        return updateCourse(courseId, course -> course.setInstructorId(instructorId));
+    }
+
+    /**
+     * Adds a meeting slot to a course, rejecting it if the room is already booked then
+     */
+    public Course addMeetingSlot(String courseId, MeetingSlot slot) throws ScheduleConflictException {
+        Course course;
+        synchronized (this) {
+            course = courses.get(courseId);
+            if (course == null) {
+                throw new IllegalArgumentException("Course not found: " + courseId);
+            }
+            List<String> clashes = findRoomConflicts(course.getSemester(), List.of(slot), courseId);
+            if (!clashes.isEmpty()) {
+                throw new ScheduleConflictException(
+                    "Room " + slot.getRoom() + " is already booked at " + slot + " by " + clashes, clashes);
+            }
+            // Booked here rather than by the change listener, which would notify under the lock
+            updating = course;
+            try {
+                course.addMeetingSlot(slot);
+            } finally {
+                updating = null;
+            }
+            book(course, course.getSemester(), List.of(slot));
+        }
+        catalogListeners.forEach(listener -> listener.scheduleChanged(course));
+        return course;
+    }
+
+    /**
+     * IDs of other catalogued courses booked in the same room at an overlapping time
+     */
+    public synchronized List<String> findRoomConflicts(Course course) {
+        return findRoomConflicts(course.getSemester(), course.getMeetingSlots(), course.getCourseId());
+    }
+
+    private List<String> findRoomConflicts(String semester, List<MeetingSlot> slots, String courseId) {
+        Set<String> clashes = new LinkedHashSet<>();
+        for (MeetingSlot slot : slots) {
+            IntervalTree<String> bookings = byRoom.get(slot.getRoom());
+            if (bookings == null) {
+                continue;
+            }
+            long start = TimetableKeys.start(semester, slot);
+            long end = TimetableKeys.end(semester, slot);
+            for (IntervalTree.Interval<String> booking : bookings.findOverlaps(start, end)) {
+                if (!booking.getValue().equals(courseId)) {
+                    clashes.add(booking.getValue());
+                }
+            }
+        }
+        return new ArrayList<>(clashes);
+    }
+
+    /**
+     * Replaces the catalog (for import functionality)
+     */
+    public void loadCourses(List<Course> courseList) {
+        List<Course> loaded;
+        synchronized (this) {
+            courses.values().forEach(course -> course.removeChangeListener(indexListener));
+            courses.clear();
+            byDepartment.clear();
+            bySemester.clear();
+            byInstructor.clear();
+            byCourseCode.clear();
+            byRoom.clear();
+            searchIndex.clear();
+            sortedViews.values().forEach(SortedView::clear);
+            courseList.forEach(course -> {
+                courses.put(course.getCourseId(), course);
+                index(course);
+                course.addChangeListener(indexListener);
+            });
+            loaded = new ArrayList<>(courses.values());
+        }
+        List<Course> view = Collections.unmodifiableList(loaded);
+        catalogListeners.forEach(listener -> listener.coursesLoaded(view));
+    }
+
+    public Optional<Course> getCourse(String courseId) {
+        return Optional.ofNullable(courses.get(courseId));
+    }
+
+    /**
+     * Read-only live view of the catalog keyed by course ID, for O(1) lookups
+     */
+    public Map<String, Course> asMap() {
+        return readOnlyView;
+    }
+
+    public List<Course> getAllCourses() {
+        return new ArrayList<>(courses.values());
+    }
+
+    /**
+     * Streams all courses in the given order
+     * Registered orderings (ComparatorUtils.BY_ENROLLMENT) are read from a maintained
+     * sorted view without sorting, ties by course ID; any other order sorts a snapshot
+     */
+    public Stream<Course> streamSorted(Comparator<Course> order) {
+        SortedView<Course, ?> view = sortedViews.get(order);
+        if (view != null) {
+            return view.stream();
+        }
+        return courses.values().stream().sorted(order);
+    }
+
+    public boolean hasSortedView(Comparator<Course> order) {
+        return sortedViews.containsKey(order);
+    }
+
+    public List<Course> getCoursesByDepartment(String department) {
+        return resolve(byDepartment.get(department));
+    }
+
+    public List<Course> getCoursesBySemester(String semester) {
+        return resolve(bySemester.get(semester));
+    }
+
+    public List<Course> getCoursesByInstructor(String instructorId) {
+        return resolve(byInstructor.get(instructorId));
+    }
+
+    /**
+     * Streams the distinct IDs of students taught by an instructor, optionally
+     * limited to one semester (null for all). Each roster is copied under its course's
+     * monitor only when the stream reaches it, so enrollments may change concurrently;
+     * IDs are de-duplicated against one set of those already emitted: O(total enrollments)
+     */
+    public Stream<String> streamStudentsTaughtBy(String instructorId, String semester) {
+        Set<String> ids = byInstructor.get(instructorId);
+        if (ids == null) {
+            return Stream.empty();
+        }
+        List<Course> taught = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Course course = courses.get(id);
+            if (course != null && (semester == null || semester.equals(course.getSemester()))) {
+                taught.add(course);
+            }
+        }
+        Set<String> seen = new HashSet<>();
+        return taught.stream()
+                .flatMap(course -> course.getEnrolledStudents().stream())
+                .filter(seen::add)
+                .sequential();
+    }
+
+    public long countStudentsTaughtBy(String instructorId, String semester) {
+        return streamStudentsTaughtBy(instructorId, semester).count();
+    }
+
+    /**
+     * Ranked keyword search over course titles and descriptions
+     */
+    public synchronized List<Course> searchCourses(String query, int limit) {
+        return resolveHits(searchIndex.search(query, limit));
+    }
+
+    /**
+     * Ranked search treating the last word as a prefix, for search-as-you-type
+     */
+    public synchronized List<Course> searchCoursesByPrefix(String query, int limit) {
+        return resolveHits(searchIndex.searchPrefix(query, limit));
+    }
+
+    private List<Course> resolveHits(List<CourseSearchIndex.Hit> hits) {
+        List<Course> result = new ArrayList<>(hits.size());
+        for (CourseSearchIndex.Hit hit : hits) {
+            Course course = courses.get(hit.getCourseId());
+            if (course != null) {
+                result.add(course);
+            }
+        }
+        return result;
+    }
+
+    public List<Course> getCoursesByCode(String courseCode) {
+        return resolve(byCourseCode.get(courseCode));
+    }
+
+    public Set<String> getDepartments() {
+        return new TreeSet<>(byDepartment.keySet());
+    }
+
+    public Set<String> getSemesters() {
+        return new TreeSet<>(bySemester.keySet());
+    }
+
+    public int getCourseCount() {
+        return courses.size();
+    }
+
+    private void index(Course course) {
+        add(byDepartment, course.getDepartment(), course);
+        add(bySemester, course.getSemester(), course);
+        add(byCourseCode, course.getCourseCode(), course);
+        if (course.getInstructorId() != null) {
+            add(byInstructor, course.getInstructorId(), course);
+        }
+        book(course, course.getSemester(), course.getMeetingSlots());
+        searchIndex.index(course);
+        sortedViews.values().forEach(view -> view.add(course));
+    }
+
+    private void unindex(Course course) {
+        remove(byDepartment, course.getDepartment(), course);
+        remove(bySemester, course.getSemester(), course);
+        remove(byCourseCode, course.getCourseCode(), course);
+        if (course.getInstructorId() != null) {
+            remove(byInstructor, course.getInstructorId(), course);
+        }
+        release(course, course.getSemester(), course.getMeetingSlots());
+        searchIndex.remove(course.getCourseId());
+        sortedViews.values().forEach(view -> view.remove(course.getCourseId()));
+    }
+
+    private void book(Course course, String semester, List<MeetingSlot> slots) {
+        for (MeetingSlot slot : slots) {
+            byRoom.computeIfAbsent(slot.getRoom(), k -> new IntervalTree<>())
+                  .add(TimetableKeys.start(semester, slot),
+                       TimetableKeys.end(semester, slot), course.getCourseId());
+        }
+    }
+
+    private void release(Course course, String semester, List<MeetingSlot> slots) {
+        for (MeetingSlot slot : slots) {
+            IntervalTree<String> bookings = byRoom.get(slot.getRoom());
+            if (bookings != null) {
+                bookings.remove(TimetableKeys.start(semester, slot),
+                                TimetableKeys.end(semester, slot), course.getCourseId());
+                if (bookings.isEmpty()) {
+                    byRoom.remove(slot.getRoom());
+                }
+            }
+        }
+    }
+
+    // Keeps the secondary, room and search indexes and the views right when a course is changed directly
+    private final class IndexListener implements CourseChangeListener {
+        @Override
+        public void instructorChanged(Course course, String previousInstructorId, String currentInstructorId) {
+            synchronized (CourseService.this) {
+                if (course == updating || courses.get(course.getCourseId()) != course) {
+                    return;
+                }
+                if (previousInstructorId != null) {
+                    remove(byInstructor, previousInstructorId, course);
+                }
+                if (currentInstructorId != null) {
+                    add(byInstructor, currentInstructorId, course);
+                }
+            }
+            // Outside the catalog lock, as catalog listeners take their own
+            catalogListeners.forEach(listener ->
+                listener.instructorChanged(course, previousInstructorId, currentInstructorId));
+        }
+
+        @Override
+        public void textChanged(Course course) {
+            synchronized (CourseService.this) {
+                if (course == updating || courses.get(course.getCourseId()) != course) {
+                    return;
+                }
+                searchIndex.index(course);
+            }
+        }
+
+        @Override
+        public void meetingSlotsChanged(Course course, List<MeetingSlot> previousSlots, List<MeetingSlot> currentSlots) {
+            synchronized (CourseService.this) {
+                if (course == updating || courses.get(course.getCourseId()) != course) {
+                    return;
+                }
+                release(course, course.getSemester(), previousSlots);
+                book(course, course.getSemester(), currentSlots);
+            }
+            catalogListeners.forEach(listener -> listener.scheduleChanged(course));
+        }
+
+        @Override
+        public void departmentChanged(Course course, String previousDepartment, String currentDepartment) {
+            synchronized (CourseService.this) {
+                if (course == updating || courses.get(course.getCourseId()) != course) {
+                    return;
+                }
+                remove(byDepartment, previousDepartment, course);
+                add(byDepartment, currentDepartment, course);
+                sortedViews.values().forEach(view -> view.refresh(course));
+            }
+        }
+
+        // Room bookings are keyed by semester, so they move with the course
+        @Override
+        public void semesterChanged(Course course, String previousSemester, String currentSemester) {
+            synchronized (CourseService.this) {
+                if (course == updating || courses.get(course.getCourseId()) != course) {
+                    return;
+                }
+                remove(bySemester, previousSemester, course);
+                add(bySemester, currentSemester, course);
+                List<MeetingSlot> slots = course.getMeetingSlots();
+                release(course, previousSemester, slots);
+                book(course, currentSemester, slots);
+                sortedViews.values().forEach(view -> view.refresh(course));
+            }
+            catalogListeners.forEach(listener -> listener.scheduleChanged(course));
+        }
+
+        @Override
+        public void maxEnrollmentChanged(Course course, int previousMaxEnrollment, int currentMaxEnrollment) {
+            synchronized (CourseService.this) {
+                if (course == updating || courses.get(course.getCourseId()) != course) {
+                    return;
+                }
+                sortedViews.values().forEach(view -> view.refresh(course));
+            }
+        }
+
+        // Called while the student service holds its own lock, so this must not take the
+        // catalog lock; the views only re-position courses they already hold
+        @Override
+        public void enrollmentChanged(Course course, int previousCount, int currentCount) {
+            sortedViews.values().forEach(view -> view.refresh(course));
+        }
+    }
+
+    private static void add(Map<String, Set<String>> index, String key, Course course) {
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(course.getCourseId());
+    }
+
+    private static void remove(Map<String, Set<String>> index, String key, Course course) {
+        Set<String> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(course.getCourseId());
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private List<Course> resolve(Set<String> ids) {
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        return ids.stream()
+                .map(courses::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,191 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+import edu.ccrm.event.DomainEvent;
+import edu.ccrm.event.DomainEventListener;
+import edu.ccrm.util.StringDictionary;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cached per-department aggregate over active students
+ * Each student's last contribution (department, year, GPA) is remembered, so a
+ * change only adjusts the departments it touches. Immutable summaries are rebuilt
+ * for those departments on the next read; an unchanged report is served as-is.
+ * Kept current by subscribing synchronously to the service's event bus
+ */
+public class DepartmentSummaryCache implements DomainEventListener {
+
+    /**
+     * Immutable summary of one department
+     */
+    public static final class DepartmentSummary {
+        private final String department;
+        private final int studentCount;
+        private final double averageGpa;
+        private final int[] yearCounts; // Index 1-4
+
+        DepartmentSummary(String department, int studentCount, double averageGpa, int[] yearCounts) {
+            this.department = department;
+            this.studentCount = studentCount;
+            this.averageGpa = averageGpa;
+            this.yearCounts = yearCounts;
+        }
+
+        public String getDepartment() { return department; }
+
+        public int getStudentCount() { return studentCount; }
+
+        public double getAverageGpa() { return averageGpa; }
+
+        public int getYearCount(int year) {
+            return year >= 1 && year < yearCounts.length ? yearCounts[year] : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("DepartmentSummary{dept='%s', students=%d, avgGPA=%.2f, years=%s}",
+                               department, studentCount, averageGpa,
+                               Arrays.toString(Arrays.copyOfRange(yearCounts, 1, yearCounts.length)));
+        }
+    }
+
+    // Mutable running totals for one department
+    private static final class Aggregate {
+        int count;
+        double gpaSum;
+        final int[] yearCounts = new int[5];
+    }
+
+    // What a student currently contributes to the aggregates
+    private static final class Contribution {
+        final int departmentCode;
+        final int year;
+        final double gpa;
+
+        Contribution(int departmentCode, int year, double gpa) {
+            this.departmentCode = departmentCode;
+            this.year = year;
+            this.gpa = gpa;
+        }
+    }
+
+    private final Function<String, Student> lookup;
+    private final Supplier<Collection<Student>> population;
+    private final Map<Integer, Aggregate> aggregates = new HashMap<>();
+    private final Map<String, Contribution> contributions = new HashMap<>();
+    private final Map<Integer, DepartmentSummary> summaries = new TreeMap<>();
+    private final Set<Integer> dirty = new HashSet<>();
+    private Map<String, DepartmentSummary> report;
+
+    /**
+     * Creates a cache resolving event student IDs through lookup; population supplies
+     * every student when a bulk load replaces them all
+     */
+    public DepartmentSummaryCache(Function<String, Student> lookup, Supplier<Collection<Student>> population) {
+        this.lookup = Objects.requireNonNull(lookup, "Lookup cannot be null");
+        this.population = Objects.requireNonNull(population, "Population cannot be null");
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        switch (event.getType()) {
+            case STUDENTS_LOADED:
+                rebuild(population.get());
+                break;
+            case STUDENT_REMOVED:
+                remove(event.getStudentId());
+                break;
+            case SEMESTER_ARCHIVED:
+                break; // Archiving keeps grades, so no GPA moves
+            default:
+                Student student = event.getStudentId() != null ? lookup.apply(event.getStudentId()) : null;
+                if (student != null) {
+                    update(student);
+                }
+        }
+    }
+
+    // Subscribed asynchronously, the cache may miss events; it recomputes from the population
+    @Override
+    public void overflowed(long missedEvents) {
+        rebuild(population.get());
+    }
+
+    /**
+     * Applies a student's current state, adjusting only the affected departments
+     */
+    public synchronized void update(Student student) {
+        Contribution previous = contributions.get(student.getId());
+        Contribution current = student.isActive()
+                ? new Contribution(student.getDepartmentCode(), student.getYear(), student.calculateGPA())
+                : null;
+
+        if (previous != null && current != null && previous.departmentCode == current.departmentCode
+                && previous.year == current.year && previous.gpa == current.gpa) {
+            return;
+        }
+        if (previous != null) {
+            apply(previous, -1);
+            contributions.remove(student.getId());
+        }
+        if (current != null) {
+            apply(current, 1);
+            contributions.put(student.getId(), current);
+        }
+    }
+
+    public synchronized void remove(String studentId) {
+        Contribution previous = contributions.remove(studentId);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+    }
+
+    public synchronized void rebuild(Collection<Student> students) {
+        aggregates.keySet().forEach(dirty::add);
+        aggregates.clear();
+        contributions.clear();
+        students.forEach(this::update);
+    }
+
+    /**
+     * Summaries keyed by department name, recomputed only for departments changed since the last call
+     */
+    public synchronized Map<String, DepartmentSummary> getSummaries() {
+        if (report != null && dirty.isEmpty()) {
+            return report;
+        }
+        for (Integer code : dirty) {
+            Aggregate aggregate = aggregates.get(code);
+            if (aggregate == null || aggregate.count == 0) {
+                summaries.remove(code);
+            } else {
+                summaries.put(code, new DepartmentSummary(
+                    StringDictionary.DEPARTMENTS.decode(code), aggregate.count,
+                    aggregate.gpaSum / aggregate.count, aggregate.yearCounts.clone()));
+            }
+        }
+        dirty.clear();
+
+        Map<String, DepartmentSummary> result = new TreeMap<>();
+        summaries.values().forEach(summary -> result.put(summary.getDepartment(), summary));
+        report = Collections.unmodifiableMap(result);
+        return report;
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        Aggregate aggregate = aggregates.computeIfAbsent(contribution.departmentCode, k -> new Aggregate());
+        aggregate.count += sign;
+        aggregate.gpaSum += sign * contribution.gpa;
+        if (contribution.year >= 1 && contribution.year <= 4) {
+            aggregate.yearCounts[contribution.year] += sign;
+        }
+        if (aggregate.count == 0) {
+            // Avoid carrying floating-point residue into the department's next student
+            aggregates.remove(contribution.departmentCode);
+        }
+        dirty.add(contribution.departmentCode);
+    }
+}
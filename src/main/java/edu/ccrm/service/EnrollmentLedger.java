@@ -0,0 +1,315 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * System of record for enrollments
+ * Dropped enrollments are closed rather than deleted, so the history keeps them.
+ * Every Enrollment is indexed by student, by course and by semester so that
+ * "history for student Y" and "all enrollments for semester X" are hash lookups.
+ * Student.enrolledCourses / courseGrades and Course.enrolledStudents are derived
+ * views kept in step by StudentService after each ledger write.
+ * The hash indexes only hold the active partition; completed enrollments of a
+ * finished semester can be frozen into an EnrollmentSegment, which historical
+ * queries consult (and load from disk) on demand. Not thread-safe; StudentService
+ * guards every read and write
+ */
+public class EnrollmentLedger {
+
+    private final Map<String, Enrollment> byId = new HashMap<>();
+    private final Map<String, List<Enrollment>> byStudent = new HashMap<>();
+    private final Map<String, Set<Enrollment>> byCourse = new HashMap<>();
+    private final Map<String, Set<Enrollment>> bySemester = new HashMap<>();
+    private final Map<String, ArchivedSemester> archive = new TreeMap<>();
+    private long nextId = 1;
+
+    /**
+     * Records a new enrollment and indexes it
+     */
+    public Enrollment record(String studentId, String courseId, String semester) {
+        Enrollment enrollment = new Enrollment(nextEnrollmentId(), studentId, courseId, semester);
+        add(enrollment);
+        return enrollment;
+    }
+
+    // Equivalent to String.format("E%06d", id) without the formatter overhead
+    private String nextEnrollmentId() {
+        String digits = Long.toString(nextId++);
+        return digits.length() >= 6 ? "E" + digits : "E" + "000000".substring(digits.length()) + digits;
+    }
+
+    /**
+     * Indexes an existing enrollment (e.g. one restored from storage)
+     */
+    public void add(Enrollment enrollment) {
+        Objects.requireNonNull(enrollment, "Enrollment cannot be null");
+        byId.put(enrollment.getEnrollmentId(), enrollment);
+        byStudent.computeIfAbsent(enrollment.getStudentId(), k -> new ArrayList<>()).add(enrollment);
+        byCourse.computeIfAbsent(enrollment.getCourseId(), k -> new LinkedHashSet<>()).add(enrollment);
+        bySemester.computeIfAbsent(enrollment.getSemester(), k -> new LinkedHashSet<>()).add(enrollment);
+    }
+
+    /**
+     * Removes an enrollment from every index
+     */
+    public boolean remove(Enrollment enrollment) {
+        if (byId.remove(enrollment.getEnrollmentId()) == null) {
+            return false;
+        }
+        removeFrom(byStudent, enrollment.getStudentId(), enrollment);
+        removeFrom(byCourse, enrollment.getCourseId(), enrollment);
+        removeFrom(bySemester, enrollment.getSemester(), enrollment);
+        return true;
+    }
+
+    /**
+     * Closes the student's current enrollment in the course as dropped, keeping it in
+     * the history; a graded enrollment loses its grade, as the student's record does
+     */
+    public Optional<Enrollment> drop(String studentId, String courseId) {
+        Optional<Enrollment> enrollment = find(studentId, courseId);
+        enrollment.ifPresent(Enrollment::markDropped);
+        return enrollment;
+    }
+
+    /**
+     * Finds the current enrollment of a student in a course
+     * Prefers an open enrollment; otherwise returns the most recent completed one.
+     * Dropped enrollments are skipped
+     */
+    public Optional<Enrollment> find(String studentId, String courseId) {
+        List<Enrollment> history = byStudent.get(studentId);
+        if (history == null) {
+            return Optional.empty();
+        }
+        Enrollment latest = null;
+        for (int i = history.size() - 1; i >= 0; i--) {
+            Enrollment enrollment = history.get(i);
+            if (enrollment.getCourseId().equals(courseId) && !enrollment.isDropped()) {
+                if (!enrollment.isCompleted()) {
+                    return Optional.of(enrollment);
+                }
+                if (latest == null) {
+                    latest = enrollment;
+                }
+            }
+        }
+        return Optional.ofNullable(latest);
+    }
+
+    /**
+     * Records a grade on the student's current enrollment in the course
+     */
+    public Optional<Enrollment> setGrade(String studentId, String courseId, Grade grade) {
+        Optional<Enrollment> enrollment = find(studentId, courseId);
+        enrollment.ifPresent(e -> e.setGrade(grade));
+        return enrollment;
+    }
+
+    public Optional<Enrollment> getEnrollment(String enrollmentId) {
+        return Optional.ofNullable(byId.get(enrollmentId));
+    }
+
+    /**
+     * Active enrollments of a student, oldest first (archived semesters excluded)
+     */
+    public List<Enrollment> getByStudent(String studentId) {
+        return copyOf(byStudent.get(studentId));
+    }
+
+    /**
+     * Active enrollments of a course (archived semesters excluded)
+     */
+    public List<Enrollment> getByCourse(String courseId) {
+        return copyOf(byCourse.get(courseId));
+    }
+
+    /**
+     * All enrollments for a semester, including its archived segment if any
+     */
+    public List<Enrollment> getBySemester(String semester) {
+        List<Enrollment> result = copyOf(bySemester.get(semester));
+        ArchivedSemester archived = archive.get(semester);
+        if (archived != null) {
+            result.addAll(archived.segment().all());
+        }
+        return result;
+    }
+
+    /**
+     * Full enrollment history for a student: archived segments first, then the active partition
+     */
+    public List<Enrollment> getHistory(String studentId) {
+        List<Enrollment> result = new ArrayList<>();
+        for (ArchivedSemester archived : archive.values()) {
+            result.addAll(archived.segment().forStudent(studentId));
+        }
+        result.addAll(getByStudent(studentId));
+        return result;
+    }
+
+    /**
+     * Full enrollment history for a course across the active partition and all archives
+     */
+    public List<Enrollment> getCourseHistory(String courseId) {
+        List<Enrollment> result = new ArrayList<>();
+        for (ArchivedSemester archived : archive.values()) {
+            result.addAll(archived.segment().forCourse(courseId));
+        }
+        result.addAll(getByCourse(courseId));
+        return result;
+    }
+
+    public Set<String> getSemesters() {
+        Set<String> semesters = new TreeSet<>(bySemester.keySet());
+        semesters.addAll(archive.keySet());
+        return semesters;
+    }
+
+    public Set<String> getArchivedSemesters() {
+        return new TreeSet<>(archive.keySet());
+    }
+
+    /**
+     * Moves the completed (graded or dropped) enrollments of a semester out of the active partition
+     * into an immutable segment. When a directory is given the segment is written
+     * there and only reloaded when a historical query needs it.
+     * Open enrollments of the semester stay active. Returns the archived rows
+     */
+    public List<Enrollment> archiveSemester(String semester, Path directory) throws IOException {
+        Set<Enrollment> bucket = bySemester.get(semester);
+        if (bucket == null) {
+            return new ArrayList<>();
+        }
+        List<Enrollment> completed = new ArrayList<>();
+        for (Enrollment enrollment : bucket) {
+            if (enrollment.isCompleted()) {
+                completed.add(enrollment);
+            }
+        }
+        if (completed.isEmpty()) {
+            return completed;
+        }
+        List<Enrollment> rows = new ArrayList<>(completed);
+        if (archive.containsKey(semester)) {
+            // Merge with rows archived earlier for the same semester
+            rows.addAll(archive.get(semester).segment().all());
+        }
+
+        EnrollmentSegment segment = EnrollmentSegment.freeze(semester, rows);
+        ArchivedSemester archived = new ArchivedSemester(segment, null);
+        if (directory != null) {
+            Path file = directory.resolve(segmentFileName(semester));
+            segment.writeTo(file);
+            archived = new ArchivedSemester(segment, file);
+        }
+        archive.put(semester, archived);
+
+        for (Enrollment enrollment : completed) {
+            remove(enrollment);
+        }
+        return completed;
+    }
+
+    /**
+     * Removes every enrollment of a student (used when the student record is removed)
+     */
+    public void removeStudent(String studentId) {
+        List<Enrollment> history = byStudent.get(studentId);
+        if (history != null) {
+            new ArrayList<>(history).forEach(this::remove);
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Empties the active partition (e.g. before students are reloaded); archived
+     * semesters are history and are kept
+     */
+    public void clear() {
+        byId.clear();
+        byStudent.clear();
+        byCourse.clear();
+        bySemester.clear();
+    }
+
+    /**
+     * Forgets the archived semesters too; segment files already written are left on disk
+     */
+    public void clearAll() {
+        clear();
+        archive.clear();
+    }
+
+    // Letters and digits are kept and every other UTF-8 byte becomes _xx, so distinct
+    // semesters ("Fall-2024", "Fall 2024") never share a file
+    static String segmentFileName(String semester) {
+        StringBuilder name = new StringBuilder("enrollments_");
+        for (byte b : semester.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                name.append(c);
+            } else {
+                name.append('_').append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            }
+        }
+        return name.append(".seg").toString();
+    }
+
+    /**
+     * Archived semester: an in-memory segment, or a file whose segment is cached softly
+     */
+    private static final class ArchivedSemester {
+        private final Path file;
+        private SoftReference<EnrollmentSegment> cached;
+        private final EnrollmentSegment pinned;
+
+        ArchivedSemester(EnrollmentSegment segment, Path file) {
+            this.file = file;
+            // Segments without a backing file must stay strongly reachable
+            this.pinned = file == null ? segment : null;
+            this.cached = new SoftReference<>(segment);
+        }
+
+        synchronized EnrollmentSegment segment() {
+            if (pinned != null) {
+                return pinned;
+            }
+            EnrollmentSegment segment = cached.get();
+            if (segment == null) {
+                try {
+                    segment = EnrollmentSegment.readFrom(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to load archived segment " + file, e);
+                }
+                cached = new SoftReference<>(segment);
+            }
+            return segment;
+        }
+    }
+
+    private static <C extends Collection<Enrollment>> void removeFrom(Map<String, C> index, String key,
+                                                                      Enrollment enrollment) {
+        C bucket = index.get(key);
+        if (bucket != null) {
+            bucket.remove(enrollment);
+            if (bucket.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static List<Enrollment> copyOf(Collection<Enrollment> bucket) {
+        return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket); // Defensive copy
+    }
+}
@@ -0,0 +1,38 @@
+package edu.ccrm.service;
+
+import java.util.Objects;
+
+/**
+ * A single (student, course) pair submitted to a bulk enrollment
+ */
+public final class EnrollmentRequest {
+    private final String studentId;
+    private final String courseId;
+
+    public EnrollmentRequest(String studentId, String courseId) {
+        this.studentId = Objects.requireNonNull(studentId, "Student ID cannot be null");
+        this.courseId = Objects.requireNonNull(courseId, "Course ID cannot be null");
+    }
+
+    public String getStudentId() { return studentId; }
+
+    public String getCourseId() { return courseId; }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        EnrollmentRequest that = (EnrollmentRequest) obj;
+        return studentId.equals(that.studentId) && courseId.equals(that.courseId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(studentId, courseId);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EnrollmentRequest{student='%s', course='%s'}", studentId, courseId);
+    }
+}
@@ -0,0 +1,176 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Immutable, compact segment holding the completed enrollments of one semester
+ * Rows are stored column-wise and sorted by student ID, so a per-student lookup is
+ * a binary search and the segment holds no per-row objects until a query asks for them.
+ * Enrollments returned by queries are fresh copies; the segment itself never changes
+ */
+public final class EnrollmentSegment {
+
+    private static final int MAGIC = 0x43435253; // "CCRS"
+    private static final byte NO_GRADE = -1;
+    private static final byte DROPPED = -2;
+    private static final Grade[] GRADES = Grade.values();
+
+    private final String semester;
+    private final String[] enrollmentIds;
+    private final String[] studentIds;
+    private final String[] courseIds;
+    private final long[] enrollmentDates;
+    private final byte[] grades;
+
+    private EnrollmentSegment(String semester, String[] enrollmentIds, String[] studentIds,
+                              String[] courseIds, long[] enrollmentDates, byte[] grades) {
+        this.semester = semester;
+        this.enrollmentIds = enrollmentIds;
+        this.studentIds = studentIds;
+        this.courseIds = courseIds;
+        this.enrollmentDates = enrollmentDates;
+        this.grades = grades;
+    }
+
+    /**
+     * Freezes the given completed enrollments of a semester into a segment
+     */
+    public static EnrollmentSegment freeze(String semester, Collection<Enrollment> enrollments) {
+        List<Enrollment> rows = new ArrayList<>(enrollments);
+        rows.sort(Comparator.comparing(Enrollment::getStudentId).thenComparing(Enrollment::getEnrollmentId));
+
+        int size = rows.size();
+        String[] enrollmentIds = new String[size];
+        String[] studentIds = new String[size];
+        String[] courseIds = new String[size];
+        long[] enrollmentDates = new long[size];
+        byte[] grades = new byte[size];
+
+        for (int i = 0; i < size; i++) {
+            Enrollment enrollment = rows.get(i);
+            if (!enrollment.isCompleted() || !enrollment.getSemester().equals(semester)) {
+                throw new IllegalArgumentException("Only completed enrollments of " + semester
+                                                   + " can be archived: " + enrollment);
+            }
+            enrollmentIds[i] = enrollment.getEnrollmentId();
+            studentIds[i] = enrollment.getStudentId();
+            courseIds[i] = enrollment.getCourseId();
+            enrollmentDates[i] = enrollment.getEnrollmentDateMillis();
+            grades[i] = enrollment.isDropped() ? DROPPED
+                      : enrollment.getGrade() != null ? (byte) enrollment.getGrade().ordinal() : NO_GRADE;
+        }
+        return new EnrollmentSegment(semester, enrollmentIds, studentIds, courseIds, enrollmentDates, grades);
+    }
+
+    public String getSemester() { return semester; }
+
+    public int size() { return studentIds.length; }
+
+    /**
+     * Enrollments of one student in this segment
+     */
+    public List<Enrollment> forStudent(String studentId) {
+        int index = Arrays.binarySearch(studentIds, studentId);
+        if (index < 0) {
+            return new ArrayList<>();
+        }
+        int from = index;
+        while (from > 0 && studentIds[from - 1].equals(studentId)) from--;
+        int to = index + 1;
+        while (to < studentIds.length && studentIds[to].equals(studentId)) to++;
+
+        List<Enrollment> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(toEnrollment(i));
+        }
+        return result;
+    }
+
+    /**
+     * Enrollments of one course in this segment (linear scan over the course column)
+     */
+    public List<Enrollment> forCourse(String courseId) {
+        List<Enrollment> result = new ArrayList<>();
+        for (int i = 0; i < courseIds.length; i++) {
+            if (courseIds[i].equals(courseId)) {
+                result.add(toEnrollment(i));
+            }
+        }
+        return result;
+    }
+
+    public List<Enrollment> all() {
+        List<Enrollment> result = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            result.add(toEnrollment(i));
+        }
+        return result;
+    }
+
+    private Enrollment toEnrollment(int i) {
+        Grade grade = grades[i] < 0 ? null : GRADES[grades[i]];
+        Enrollment enrollment = new Enrollment(enrollmentIds[i], studentIds[i], courseIds[i], semester,
+                                               enrollmentDates[i], grade);
+        if (grades[i] == DROPPED) {
+            enrollment.markDropped();
+        }
+        return enrollment;
+    }
+
+    /**
+     * Writes the segment to a file
+     */
+    public void writeTo(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeUTF(semester);
+            out.writeInt(size());
+            for (int i = 0; i < size(); i++) {
+                out.writeUTF(enrollmentIds[i]);
+                out.writeUTF(studentIds[i]);
+                out.writeUTF(courseIds[i]);
+                out.writeLong(enrollmentDates[i]);
+                out.writeByte(grades[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a segment previously written with writeTo
+     */
+    public static EnrollmentSegment readFrom(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an enrollment segment: " + file);
+            }
+            String semester = in.readUTF();
+            int size = in.readInt();
+            String[] enrollmentIds = new String[size];
+            String[] studentIds = new String[size];
+            String[] courseIds = new String[size];
+            long[] enrollmentDates = new long[size];
+            byte[] grades = new byte[size];
+            for (int i = 0; i < size; i++) {
+                enrollmentIds[i] = in.readUTF();
+                studentIds[i] = in.readUTF();
+                courseIds[i] = in.readUTF();
+                enrollmentDates[i] = in.readLong();
+                grades[i] = in.readByte();
+            }
+            return new EnrollmentSegment(semester, enrollmentIds, studentIds, courseIds, enrollmentDates, grades);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EnrollmentSegment{semester='%s', rows=%d}", semester, size());
+    }
+}
@@ -0,0 +1,83 @@
+package edu.ccrm.service;
+
+import edu.ccrm.io.GradeRecord;
+import java.util.*;
+
+/**
+ * Summary of a batch grade import
+ * Keeps totals per rejection reason and the first few rejected rows for display
+ */
+public final class GradeImportReport {
+
+    private static final int MAX_SAMPLE_ERRORS = 100;
+
+    /**
+     * Why a grade row was not applied
+     */
+    public enum Rejection {
+        STUDENT_NOT_FOUND,
+        NOT_ENROLLED,
+        INVALID_GRADE,
+        MALFORMED_ROW
+    }
+
+    private long rowsRead;
+    private long rowsApplied;
+    private long studentsUpdated;
+    private int batches;
+    private long elapsedMillis;
+    private final EnumMap<Rejection, Long> rejections = new EnumMap<>(Rejection.class);
+    private final List<String> sampleErrors = new ArrayList<>();
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void reject(GradeRecord record, Rejection reason) {
+        rejections.merge(reason, 1L, Long::sum);
+        if (sampleErrors.size() < MAX_SAMPLE_ERRORS) {
+            sampleErrors.add(String.format("Line %d: %s (%s)", record.getLineNumber(), reason, record));
+        }
+    }
+
+    void batchApplied(int rows, int students) {
+        rowsApplied += rows;
+        studentsUpdated += students;
+        batches++;
+    }
+
+    void finish(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRowsRead() { return rowsRead; }
+
+    public long getRowsApplied() { return rowsApplied; }
+
+    public long getRowsRejected() {
+        return rejections.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Number of per-batch student updates (a student spanning two batches counts twice)
+     */
+    public long getStudentsUpdated() { return studentsUpdated; }
+
+    public int getBatches() { return batches; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public Map<Rejection, Long> getRejections() {
+        return new EnumMap<>(rejections);
+    }
+
+    public List<String> getSampleErrors() {
+        return new ArrayList<>(sampleErrors);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GradeImportReport{read=%d, applied=%d, rejected=%d, studentUpdates=%d, batches=%d, time=%dms, rejections=%s}",
+                           rowsRead, rowsApplied, getRowsRejected(), studentsUpdated, batches, elapsedMillis, rejections);
+    }
+}
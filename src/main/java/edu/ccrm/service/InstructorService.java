@@ -0,0 +1,282 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Instructor;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Instructor registry with a load-balancing course assignment engine
+ * Instructors are kept in ordered pools per department and per (department,
+ * specialization), sorted by course load, so the least-loaded qualified instructor
+ * is found and re-positioned in O(log n). The catalog is the source of truth:
+ * assignments go through CourseService, and Instructor.assignedCourses follows
+ * Course.instructorId through a catalog listener, so it also stays right when a
+ * course is reassigned directly, removed or reloaded
+ */
+public class InstructorService {
+
+    // Least-loaded first; ID breaks ties so the ordering is total
+    private static final Comparator<Instructor> BY_LOAD =
+        Comparator.comparingInt(Instructor::getCourseLoad).thenComparing(Instructor::getId);
+
+    private final CourseService courseService;
+    private final Map<String, Instructor> instructors = new ConcurrentHashMap<>();
+    private final Map<String, TreeSet<Instructor>> departmentPools = new HashMap<>();
+    private final Map<String, TreeSet<Instructor>> specializationPools = new HashMap<>();
+
+    public InstructorService(CourseService courseService) {
+        this.courseService = Objects.requireNonNull(courseService, "Course service cannot be null");
+        courseService.addCatalogListener(new CatalogSync());
+    }
+
+    /**
+     * Registers an instructor and makes them available for assignment
+     * Their assigned courses are taken from the catalog: every course whose
+     * instructor ID is theirs, and no other
+     */
+    public synchronized Instructor addInstructor(Instructor instructor) {
+        Objects.requireNonNull(instructor, "Instructor cannot be null");
+        if (instructors.containsKey(instructor.getId())) {
+            throw new IllegalArgumentException("Instructor with ID " + instructor.getId() + " already exists");
+        }
+        Set<String> taught = new HashSet<>();
+        courseService.getCoursesByInstructor(instructor.getId()).forEach(course -> taught.add(course.getCourseId()));
+        for (String courseId : instructor.getAssignedCourses()) {
+            if (!taught.contains(courseId)) {
+                instructor.unassignCourse(courseId);
+            }
+        }
+        taught.forEach(instructor::assignCourse);
+        instructors.put(instructor.getId(), instructor);
+        enqueue(instructor);
+        return instructor;
+    }
+
+    /**
+     * Removes an instructor, leaving their courses unassigned
+     */
+    public synchronized Optional<Instructor> removeInstructor(String instructorId) {
+        Instructor instructor = instructors.remove(instructorId);
+        if (instructor != null) {
+            dequeue(instructor);
+            for (String courseId : instructor.getAssignedCourses()) {
+                if (courseService.getCourse(courseId).isPresent()) {
+                    courseService.assignInstructor(courseId, null);
+                }
+            }
+        }
+        return Optional.ofNullable(instructor);
+    }
+
+    /**
+     * Applies a change to an instructor (e.g. a new department or specialization)
+     * and re-files them in the matching pools
+     */
+    public synchronized Instructor updateInstructor(String instructorId, Consumer<Instructor> change) {
+        Instructor instructor = instructors.get(instructorId);
+        if (instructor == null) {
+            throw new IllegalArgumentException("Instructor not found: " + instructorId);
+        }
+        dequeue(instructor);
+        try {
+            change.accept(instructor);
+        } finally {
+            enqueue(instructor);
+        }
+        return instructor;
+    }
+
+    public Optional<Instructor> getInstructor(String instructorId) {
+        return Optional.ofNullable(instructors.get(instructorId));
+    }
+
+    public List<Instructor> getAllInstructors() {
+        return new ArrayList<>(instructors.values());
+    }
+
+    public int getInstructorCount() {
+        return instructors.size();
+    }
+
+    /**
+     * Assigns a specific instructor to a course, replacing any previous instructor
+     */
+    public synchronized void assign(String courseId, String instructorId) {
+        Course course = courseService.getCourse(courseId)
+                .orElseThrow(() -> new IllegalArgumentException("Course not found: " + courseId));
+        Instructor instructor = instructors.get(instructorId);
+        if (instructor == null) {
+            throw new IllegalArgumentException("Instructor not found: " + instructorId);
+        }
+        moveCourse(course, instructor);
+    }
+
+    /**
+     * Assigns a course to the least-loaded instructor of its department, preferring
+     * the given specialization when one is requested and available
+     * Returns the chosen instructor, or empty if the department has nobody
+     */
+    public synchronized Optional<Instructor> autoAssign(String courseId, String specialization) {
+        Course course = courseService.getCourse(courseId)
+                .orElseThrow(() -> new IllegalArgumentException("Course not found: " + courseId));
+
+        TreeSet<Instructor> pool = null;
+        if (specialization != null) {
+            pool = specializationPools.get(specializationKey(course.getDepartment(), specialization));
+        }
+        if (pool == null || pool.isEmpty()) {
+            pool = departmentPools.get(course.getDepartment());
+        }
+        if (pool == null || pool.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Instructor chosen = pool.first();
+        moveCourse(course, chosen);
+        return Optional.of(chosen);
+    }
+
+    /**
+     * Assigns every given course that has no instructor yet
+     * Returns course ID to instructor ID for the courses that could be assigned
+     */
+    public synchronized Map<String, String> autoAssignAll(Collection<String> courseIds) {
+        Map<String, String> assignments = new LinkedHashMap<>();
+        for (String courseId : courseIds) {
+            Optional<Course> course = courseService.getCourse(courseId);
+            if (course.isPresent() && course.get().getInstructorId() == null) {
+                autoAssign(courseId, null).ifPresent(i -> assignments.put(courseId, i.getId()));
+            }
+        }
+        return assignments;
+    }
+
+    /**
+     * Moves courses from heavily to lightly loaded instructors of each department
+     * until no instructor can hand a course to a qualified peer whose load is at
+     * least two lower. A specialist's courses only move to instructors with the
+     * same specialization; anyone in the department can take a generalist's.
+     * Returns the number of courses moved
+     */
+    public synchronized int rebalance() {
+        int moves = 0;
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            for (TreeSet<Instructor> pool : new ArrayList<>(departmentPools.values())) {
+                // Most loaded first; the pool re-sorts on every move, so rescan after one
+                for (Instructor donor : new ArrayList<>(pool.descendingSet())) {
+                    Instructor target = leastLoadedPeer(donor);
+                    if (target == null || donor.getCourseLoad() - target.getCourseLoad() <= 1) {
+                        continue;
+                    }
+                    Optional<Course> course = donor.getAssignedCourses().stream()
+                            .map(courseService::getCourse)
+                            .flatMap(Optional::stream)
+                            .findFirst();
+                    if (course.isPresent()) {
+                        moveCourse(course.get(), target);
+                        moves++;
+                        moved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return moves;
+    }
+
+    // Least-loaded instructor qualified to take over the donor's courses
+    private Instructor leastLoadedPeer(Instructor donor) {
+        TreeSet<Instructor> pool = donor.getSpecialization() == null
+                ? departmentPools.get(donor.getDepartment())
+                : specializationPools.get(specializationKey(donor.getDepartment(), donor.getSpecialization()));
+        return pool == null || pool.isEmpty() ? null : pool.first();
+    }
+
+    // Reassigns a course through the catalog; CatalogSync updates both instructors and their pools
+    private void moveCourse(Course course, Instructor target) {
+        if (!target.getId().equals(course.getInstructorId())) {
+            courseService.assignInstructor(course.getCourseId(), target.getId());
+        }
+    }
+
+    // Mirrors Course.instructorId into Instructor.assignedCourses
+    private final class CatalogSync implements CatalogListener {
+        @Override
+        public void courseAdded(Course course) {
+            instructorChanged(course, null, course.getInstructorId());
+        }
+
+        @Override
+        public void courseRemoved(Course course) {
+            instructorChanged(course, course.getInstructorId(), null);
+        }
+
+        @Override
+        public void coursesLoaded(Collection<Course> courses) {
+            synchronized (InstructorService.this) {
+                for (Instructor instructor : instructors.values()) {
+                    dequeue(instructor);
+                    instructor.getAssignedCourses().forEach(instructor::unassignCourse);
+                }
+                for (Course course : courses) {
+                    Instructor instructor = course.getInstructorId() != null
+                            ? instructors.get(course.getInstructorId()) : null;
+                    if (instructor != null) {
+                        instructor.assignCourse(course.getCourseId());
+                    }
+                }
+                instructors.values().forEach(InstructorService.this::enqueue);
+            }
+        }
+
+        @Override
+        public void instructorChanged(Course course, String previousInstructorId, String currentInstructorId) {
+            synchronized (InstructorService.this) {
+                Instructor previous = previousInstructorId != null ? instructors.get(previousInstructorId) : null;
+                if (previous != null) {
+                    dequeue(previous);
+                    previous.unassignCourse(course.getCourseId());
+                    enqueue(previous);
+                }
+                Instructor current = currentInstructorId != null ? instructors.get(currentInstructorId) : null;
+                if (current != null) {
+                    dequeue(current);
+                    current.assignCourse(course.getCourseId());
+                    enqueue(current);
+                }
+            }
+        }
+    }
+
+    private void enqueue(Instructor instructor) {
+        departmentPools.computeIfAbsent(instructor.getDepartment(), k -> new TreeSet<>(BY_LOAD)).add(instructor);
+        if (instructor.getSpecialization() != null) {
+            specializationPools.computeIfAbsent(
+                specializationKey(instructor.getDepartment(), instructor.getSpecialization()),
+                k -> new TreeSet<>(BY_LOAD)).add(instructor);
+        }
+    }
+
+    // Must be called before an instructor's load or department changes
+    private void dequeue(Instructor instructor) {
+        TreeSet<Instructor> pool = departmentPools.get(instructor.getDepartment());
+        if (pool != null) {
+            pool.remove(instructor);
+        }
+        if (instructor.getSpecialization() != null) {
+            TreeSet<Instructor> specialized = specializationPools.get(
+                specializationKey(instructor.getDepartment(), instructor.getSpecialization()));
+            if (specialized != null) {
+                specialized.remove(instructor);
+            }
+        }
+    }
+
+    private static String specializationKey(String department, String specialization) {
+        return department + '\u0000' + specialization.toLowerCase();
+    }
+}
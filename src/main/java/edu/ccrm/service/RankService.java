@@ -0,0 +1,147 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+import java.util.*;
+
+/**
+ * Class rank and percentile service
+ * Active students are partitioned by department and year; each partition keeps a
+ * Fenwick tree over GPA quantized to 0.01, so rank and percentile queries and
+ * updates are O(log B) where B is the number of GPA buckets
+ */
+public class RankService {
+
+    private static final double MAX_GPA = 10.0;
+    private static final int BUCKETS = (int) Math.round(MAX_GPA * 100) + 1;
+
+    private final Map<Integer, Partition> partitions = new HashMap<>();
+    private final Map<String, Position> positions = new HashMap<>();
+
+    /**
+     * Class rank of a student within their department and year
+     */
+    public static final class Rank {
+        private final int rank;
+        private final int total;
+        private final double percentile;
+
+        Rank(int rank, int total, double percentile) {
+            this.rank = rank;
+            this.total = total;
+            this.percentile = percentile;
+        }
+
+        public int getRank() { return rank; }
+
+        public int getTotal() { return total; }
+
+        // Percentage of the partition with the same or a lower GPA
+        public double getPercentile() { return percentile; }
+
+        @Override
+        public String toString() {
+            return String.format("%d of %d (%.1f percentile)", rank, total, percentile);
+        }
+    }
+
+    /**
+     * Adds, moves or removes a student after a change to GPA, department, year or status
+     */
+    public synchronized void update(Student student) {
+        Position current = positions.get(student.getId());
+        if (!student.isActive()) {
+            if (current != null) {
+                remove(student.getId());
+            }
+            return;
+        }
+
+        int partitionKey = partitionKey(student.getDepartmentCode(), student.getYear());
+        int bucket = bucketOf(student.calculateGPA());
+        if (current != null) {
+            if (current.partitionKey == partitionKey && current.bucket == bucket) {
+                return;
+            }
+            partitions.get(current.partitionKey).add(current.bucket, -1);
+        }
+        partitions.computeIfAbsent(partitionKey, k -> new Partition()).add(bucket, 1);
+        positions.put(student.getId(), new Position(partitionKey, bucket));
+    }
+
+    public synchronized void remove(String studentId) {
+        Position current = positions.remove(studentId);
+        if (current != null) {
+            partitions.get(current.partitionKey).add(current.bucket, -1);
+        }
+    }
+
+    /**
+     * Rank of a student (1 = highest GPA; ties share a rank), empty if not ranked
+     */
+    public synchronized Optional<Rank> getRank(String studentId) {
+        Position position = positions.get(studentId);
+        if (position == null) {
+            return Optional.empty();
+        }
+        Partition partition = partitions.get(position.partitionKey);
+        int total = partition.total;
+        int atOrBelow = partition.prefixSum(position.bucket);
+        int rank = total - atOrBelow + 1;
+        return Optional.of(new Rank(rank, total, 100.0 * atOrBelow / total));
+    }
+
+    /**
+     * Number of ranked students in a department and year
+     */
+    public synchronized int getPartitionSize(int departmentCode, int year) {
+        Partition partition = partitions.get(partitionKey(departmentCode, year));
+        return partition == null ? 0 : partition.total;
+    }
+
+    public synchronized void rebuild(Collection<Student> students) {
+        partitions.clear();
+        positions.clear();
+        students.forEach(this::update);
+    }
+
+    private static int partitionKey(int departmentCode, int year) {
+        return departmentCode * 8 + year;
+    }
+
+    private static int bucketOf(double gpa) {
+        int bucket = (int) Math.round(gpa * 100);
+        return Math.max(0, Math.min(BUCKETS - 1, bucket));
+    }
+
+    private static final class Position {
+        final int partitionKey;
+        final int bucket;
+
+        Position(int partitionKey, int bucket) {
+            this.partitionKey = partitionKey;
+            this.bucket = bucket;
+        }
+    }
+
+    // Fenwick (binary indexed) tree of student counts per GPA bucket
+    private static final class Partition {
+        private final int[] tree = new int[BUCKETS + 1];
+        private int total;
+
+        void add(int bucket, int delta) {
+            total += delta;
+            for (int i = bucket + 1; i <= BUCKETS; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        // Count of students in buckets 0..bucket inclusive
+        int prefixSum(int bucket) {
+            int sum = 0;
+            for (int i = bucket + 1; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+    }
+}
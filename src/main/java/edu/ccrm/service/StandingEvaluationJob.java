@@ -0,0 +1,177 @@
+package edu.ccrm.service;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.domain.AcademicStanding;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * End-of-term batch job classifying every student's academic standing
+ * It runs over immutable StudentRecords from a snapshot, so workers never read live
+ * students without the service lock. The population is split with fork/join; each
+ * leaf writes straight into a shared result array, so classification allocates
+ * nothing per student. Thresholds come from application.properties via AppConfig
+ */
+public class StandingEvaluationJob {
+
+    private static final int LEAF_SIZE = 2048;
+
+    private final double deansListMinGpa;
+    private final int deansListMaxFailed;
+    private final double probationMaxGpa;
+    private final int probationMinFailed;
+
+    public StandingEvaluationJob(AppConfig config) {
+        this(config.getDeansListMinGpa(), config.getDeansListMaxFailed(),
+             config.getProbationMaxGpa(), config.getProbationMinFailed());
+    }
+
+    public StandingEvaluationJob(double deansListMinGpa, int deansListMaxFailed,
+                                 double probationMaxGpa, int probationMinFailed) {
+        assert deansListMinGpa > probationMaxGpa : "Dean's list threshold must be above probation threshold";
+        this.deansListMinGpa = deansListMinGpa;
+        this.deansListMaxFailed = deansListMaxFailed;
+        this.probationMaxGpa = probationMaxGpa;
+        this.probationMinFailed = probationMinFailed;
+    }
+
+    /**
+     * Classifies a single student
+     * Students with no graded courses are in good standing
+     */
+    public AcademicStanding classify(StudentRecord student) {
+        if (student.getGradedCredits() == 0) {
+            return AcademicStanding.GOOD_STANDING;
+        }
+        double gpa = student.getGpa();
+        int failed = student.getFailedCourseCount();
+
+        if (gpa < probationMaxGpa || failed >= probationMinFailed) {
+            return AcademicStanding.PROBATION;
+        }
+        if (gpa >= deansListMinGpa && failed <= deansListMaxFailed) {
+            return AcademicStanding.DEANS_LIST;
+        }
+        return AcademicStanding.GOOD_STANDING;
+    }
+
+    /**
+     * Classifies all students on a pool with the given parallelism
+     */
+    public Results run(Collection<StudentRecord> students, int parallelism) {
+        StudentRecord[] population = students.toArray(new StudentRecord[0]);
+        AcademicStanding[] standings = new AcademicStanding[population.length];
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new ClassifyTask(population, standings, 0, population.length));
+        } finally {
+            pool.shutdown();
+        }
+        return new Results(population, standings, parallelism, System.nanoTime() - start);
+    }
+
+    /**
+     * Classifies all students on the common pool
+     */
+    public Results run(Collection<StudentRecord> students) {
+        return run(students, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    private final class ClassifyTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final StudentRecord[] students;
+        private final AcademicStanding[] standings;
+        private final int from;
+        private final int to;
+
+        ClassifyTask(StudentRecord[] students, AcademicStanding[] standings, int from, int to) {
+            this.students = students;
+            this.standings = standings;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    standings[i] = classify(students[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ClassifyTask(students, standings, from, mid),
+                      new ClassifyTask(students, standings, mid, to));
+        }
+    }
+
+    /**
+     * Standings aligned by index with the evaluated students
+     */
+    public static final class Results {
+        public static final List<String> CSV_HEADER = List.of(
+            "ID", "RegistrationNumber", "Department", "Year", "GPA", "FailedCourses", "Standing");
+
+        private final StudentRecord[] students;
+        private final AcademicStanding[] standings;
+        private final int parallelism;
+        private final long elapsedNanos;
+
+        Results(StudentRecord[] students, AcademicStanding[] standings, int parallelism, long elapsedNanos) {
+            this.students = students;
+            this.standings = standings;
+            this.parallelism = parallelism;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int size() { return students.length; }
+
+        public StudentRecord getStudent(int index) { return students[index]; }
+
+        public AcademicStanding getStanding(int index) { return standings[index]; }
+
+        public int getParallelism() { return parallelism; }
+
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        /**
+         * One row per student in CSV_HEADER order, built as the rows are read
+         */
+        public Iterable<List<String>> csvRows() {
+            return () -> new Iterator<List<String>>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < students.length;
+                }
+
+                @Override
+                public List<String> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    StudentRecord student = students[next];
+                    AcademicStanding standing = standings[next++];
+                    // Locale.ROOT keeps the decimal point a dot, whatever the default locale
+                    return Arrays.asList(student.getId(), student.getRegistrationNumber(), student.getDepartment(),
+                                         Integer.toString(student.getYear()),
+                                         String.format(Locale.ROOT, "%.2f", student.getGpa()),
+                                         Integer.toString(student.getFailedCourseCount()), standing.name());
+                }
+            };
+        }
+
+        public EnumMap<AcademicStanding, Integer> getCounts() {
+            EnumMap<AcademicStanding, Integer> counts = new EnumMap<>(AcademicStanding.class);
+            for (AcademicStanding standing : standings) {
+                counts.merge(standing, 1, Integer::sum);
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+import edu.ccrm.util.ValidationUtils;
+import java.util.*;
+
+/**
+ * Batch validation of students, built on the field matchers in ValidationUtils
+ * Lives in the service layer so ValidationUtils stays free of domain types
+ */
+public final class StudentBatchValidator {
+
+    // Private constructor to prevent instantiation
+    private StudentBatchValidator() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Validates a batch of students without throwing
+     * Returns one error per failed check, including duplicate IDs and registration
+     * numbers within the batch; an empty list means every row is valid
+     */
+    public static List<ValidationError> validateAll(List<Student> students) {
+        List<ValidationError> errors = new ArrayList<>();
+        Set<String> seenIds = new HashSet<>();
+        Set<String> seenRegNumbers = new HashSet<>();
+
+        for (int row = 0; row < students.size(); row++) {
+            Student student = students.get(row);
+            if (student == null) {
+                errors.add(new ValidationError(row, null, "student", "Row is empty"));
+                continue;
+            }
+
+            String id = student.getId();
+            if (!ValidationUtils.isValidId(id)) {
+                errors.add(new ValidationError(row, id, "id", "Invalid student ID"));
+            } else if (!seenIds.add(id)) {
+                errors.add(new ValidationError(row, id, "id", "Duplicate student ID in batch"));
+            }
+            if (!ValidationUtils.isValidEmail(student.getEmail())) {
+                errors.add(new ValidationError(row, id, "email", "Invalid email format"));
+            }
+            String regNumber = student.getRegistrationNumber();
+            if (!ValidationUtils.isValidRegistrationNumber(regNumber)) {
+                errors.add(new ValidationError(row, id, "registrationNumber", "Invalid registration number format"));
+            } else if (!seenRegNumbers.add(regNumber)) {
+                errors.add(new ValidationError(row, id, "registrationNumber", "Duplicate registration number in batch"));
+            }
+            if (!ValidationUtils.isValidYear(student.getYear())) {
+                errors.add(new ValidationError(row, id, "year", "Invalid year (must be 1-4)"));
+            }
+            if (ValidationUtils.isNullOrEmpty(student.getDepartment())) {
+                errors.add(new ValidationError(row, id, "department", "Department cannot be empty"));
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Structured validation failure for one row of a batch
+     */
+    public static final class ValidationError {
+        private final int row;
+        private final String studentId;
+        private final String field;
+        private final String message;
+
+        public ValidationError(int row, String studentId, String field, String message) {
+            this.row = row;
+            this.studentId = studentId;
+            this.field = field;
+            this.message = message;
+        }
+
+        public int getRow() { return row; }
+
+        public String getStudentId() { return studentId; }
+
+        public String getField() { return field; }
+
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return String.format("ValidationError{row=%d, student='%s', field='%s', message='%s'}",
+                               row, studentId, field, message);
+        }
+    }
+}
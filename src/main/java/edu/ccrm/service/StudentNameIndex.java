@@ -0,0 +1,553 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+import edu.ccrm.util.TextAnalyzer;
+import java.util.*;
+
+/**
+ * Lookup index over student names, emails and registration numbers
+ * Prefix search binary-searches a sorted array of keys (full name, each name word,
+ * email, registration number); recent additions go to a small unsorted delta
+ * that is scanned linearly and merged into the array once it grows. Typo-tolerant
+ * search gathers candidates from a trigram index, keeps those sharing the most
+ * trigrams with the query and verifies them with a bounded edit distance, so cost
+ * tracks the candidates rather than the student count.
+ * Every indexed student has an ordinal; re-indexing gives a fresh ordinal and the
+ * old entries are skipped until the next merge or compaction. Not thread-safe;
+ * StudentService guards it
+ */
+public class StudentNameIndex {
+
+    private static final int MAX_VERIFIED_CANDIDATES = 512;
+    private static final int MIN_MERGE_SIZE = 4096;
+    private static final int MERGE_FRACTION = 64; // Delta is merged at 1/64 of the base size
+    private static final int COMMON_GRAM_FRACTION = 20; // Lists over 1/20 of the index are only read if needed
+
+    // Prefix keys: sorted base arrays plus a delta of recent entries
+    private String[] baseKeys = new String[0];
+    private int[] baseOrdinals = new int[0];
+    private List<KeyEntry> delta = new ArrayList<>();
+    private int staleKeys; // Base entries whose student was removed or re-indexed
+
+    // Trigram code -> ordinals; codes are three 6-bit symbols, so the table is direct-mapped
+    private final PostingList[] trigrams = new PostingList[1 << 18];
+
+    private final Map<String, Integer> ordinals = new HashMap<>(); // Student ID -> live ordinal
+    private String[] studentIds = new String[1024]; // Ordinal -> student ID, null once dead
+    private String[] names = new String[1024];      // Normalized values per ordinal
+    private String[] emails = new String[1024];
+    private String[] registrations = new String[1024];
+    private int nextOrdinal;
+    private final Tally tally = new Tally(); // Scratch trigram counts for fuzzySearch
+
+    /**
+     * Indexes a student, replacing whatever was indexed for them before
+     */
+    public void add(Student student) {
+        int ordinal = assign(student);
+        for (String key : keysOf(ordinal)) {
+            delta.add(new KeyEntry(key, ordinal));
+        }
+        if (delta.size() > Math.max(MIN_MERGE_SIZE, baseKeys.length / MERGE_FRACTION)) {
+            List<KeyEntry> sorted = delta;
+            delta = new ArrayList<>();
+            sorted.sort(null);
+            mergeDelta(sorted);
+        }
+    }
+
+    /**
+     * Indexes many students at once, sorting their keys in one pass
+     */
+    public void addAll(Collection<Student> students) {
+        List<KeyEntry> entries = delta;
+        delta = new ArrayList<>();
+        for (Student student : students) {
+            int ordinal = assign(student);
+            for (String key : keysOf(ordinal)) {
+                entries.add(new KeyEntry(key, ordinal));
+            }
+        }
+        entries.sort(null);
+        mergeDelta(entries);
+    }
+
+    /**
+     * Removes a student from the index
+     */
+    public void remove(String studentId) {
+        Integer ordinal = ordinals.remove(studentId);
+        if (ordinal == null) {
+            return;
+        }
+        for (int code : gramsOf(ordinal)) {
+            trigrams[code].live--;
+        }
+        // Its prefix keys become dead entries, skipped by queries and dropped on merge
+        staleKeys += keysOf(ordinal).size();
+        studentIds[ordinal] = null;
+        names[ordinal] = null;
+        emails[ordinal] = null;
+        registrations[ordinal] = null;
+    }
+
+    /**
+     * IDs of students whose name, any name word, email or registration number
+     * starts with the prefix (case-insensitive), in key order
+     */
+    public List<String> prefixSearch(String prefix, int limit) {
+        String normalized = TextAnalyzer.normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        // Up to `limit` distinct live students from the base plus the delta's matches, merged by key
+        List<KeyEntry> matches = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        int i = lowerBound(normalized);
+        while (i < baseKeys.length && baseKeys[i].startsWith(normalized) && seen.size() < limit) {
+            if (studentIds[baseOrdinals[i]] != null && seen.add(baseOrdinals[i])) {
+                matches.add(new KeyEntry(baseKeys[i], baseOrdinals[i]));
+            }
+            i++;
+        }
+        for (KeyEntry entry : delta) {
+            if (studentIds[entry.ordinal] != null && entry.key.startsWith(normalized)) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(null);
+
+        Set<String> result = new LinkedHashSet<>();
+        for (int j = 0; j < matches.size() && result.size() < limit; j++) {
+            result.add(studentIds[matches.get(j).ordinal]);
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * IDs of students matching the query within a small edit distance (1 for
+     * queries up to four characters, 2 otherwise), closest first
+     */
+    public List<String> fuzzySearch(String query, int limit) {
+        String normalized = TextAnalyzer.normalize(query);
+        int[] grams = gramCodes(normalized);
+        if (grams.length == 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+        int maxEdits = normalized.length() <= 4 ? 1 : 2;
+
+        // Rarest trigrams first; an edit destroys at most three, so once 3k+1 are read
+        // every true match has been touched and very common lists can be skipped
+        Integer[] order = new Integer[grams.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingInt(i -> postingSize(grams[i])));
+        int commonSize = Math.max(MIN_MERGE_SIZE, ordinals.size() / COMMON_GRAM_FRACTION);
+
+        tally.ensureCapacity(nextOrdinal);
+        int[] counts = tally.values;
+        try {
+            int processed = 0;
+            for (int index : order) {
+                PostingList list = trigrams[grams[index]];
+                int size = postingSize(grams[index]);
+                if (processed > 3 * maxEdits && size > commonSize) {
+                    break;
+                }
+                processed++;
+                if (size == 0) {
+                    continue;
+                }
+                if (list.size > 2 * list.live) {
+                    list.compact(studentIds);
+                }
+                for (int i = 0; i < list.size; i++) {
+                    int ordinal = list.ordinals[i];
+                    if (studentIds[ordinal] != null) {
+                        tally.increment(ordinal);
+                    }
+                }
+            }
+
+            int minShared = Math.max(1, processed - 3 * maxEdits);
+            PriorityQueue<Integer> candidates = new PriorityQueue<>(
+                Comparator.<Integer>comparingInt(o -> counts[o]).thenComparing(o -> -o));
+            for (int i = 0; i < tally.touchedCount; i++) {
+                int ordinal = tally.touched[i];
+                if (counts[ordinal] >= minShared
+                        && (candidates.size() < MAX_VERIFIED_CANDIDATES || counts[ordinal] > counts[candidates.peek()])) {
+                    candidates.add(ordinal);
+                    if (candidates.size() > MAX_VERIFIED_CANDIDATES) {
+                        candidates.poll();
+                    }
+                }
+            }
+
+            List<int[]> matches = new ArrayList<>(); // {ordinal, distance}
+            for (int ordinal : candidates) {
+                int distance = distance(normalized, ordinal, maxEdits);
+                if (distance <= maxEdits) {
+                    matches.add(new int[] {ordinal, distance});
+                }
+            }
+            matches.sort(Comparator.<int[]>comparingInt(m -> m[1])
+                                   .thenComparing(m -> -counts[m[0]])
+                                   .thenComparing(m -> names[m[0]]));
+
+            List<String> result = new ArrayList<>();
+            for (int i = 0; i < matches.size() && i < limit; i++) {
+                result.add(studentIds[matches.get(i)[0]]);
+            }
+            return result;
+        } finally {
+            tally.reset();
+        }
+    }
+
+    public int size() {
+        return ordinals.size();
+    }
+
+    public void clear() {
+        baseKeys = new String[0];
+        baseOrdinals = new int[0];
+        delta.clear();
+        staleKeys = 0;
+        Arrays.fill(trigrams, null);
+        ordinals.clear();
+        studentIds = new String[1024];
+        names = new String[1024];
+        emails = new String[1024];
+        registrations = new String[1024];
+        nextOrdinal = 0;
+        tally.values = new int[0];
+    }
+
+    // Gives the student a fresh ordinal and records its trigrams
+    private int assign(Student student) {
+        remove(student.getId());
+        if (nextOrdinal == studentIds.length) {
+            grow();
+        }
+        int ordinal = nextOrdinal++;
+        studentIds[ordinal] = student.getId();
+        names[ordinal] = TextAnalyzer.normalize(student.getName());
+        emails[ordinal] = TextAnalyzer.normalize(student.getEmail());
+        registrations[ordinal] = TextAnalyzer.normalize(student.getRegistrationNumber());
+        ordinals.put(student.getId(), ordinal);
+        for (int code : gramsOf(ordinal)) {
+            PostingList list = trigrams[code];
+            if (list == null) {
+                list = new PostingList();
+                trigrams[code] = list;
+            }
+            list.add(ordinal);
+        }
+        return ordinal;
+    }
+
+    // Closest of the full name, any single name word, the email local part and the registration number
+    private int distance(String query, int ordinal, int maxEdits) {
+        String name = names[ordinal];
+        int best = TextAnalyzer.editDistance(query, name, maxEdits);
+        if (best > 0 && query.indexOf(' ') < 0) {
+            for (String word : name.split(" ")) {
+                best = Math.min(best, TextAnalyzer.editDistance(query, word, maxEdits));
+            }
+        }
+        best = Math.min(best, TextAnalyzer.editDistance(query, localPart(emails[ordinal]), maxEdits));
+        return Math.min(best, TextAnalyzer.editDistance(query, registrations[ordinal], maxEdits));
+    }
+
+    private List<String> keysOf(int ordinal) {
+        List<String> keys = new ArrayList<>(5);
+        String name = names[ordinal];
+        keys.add(name);
+        if (name.indexOf(' ') >= 0) {
+            Collections.addAll(keys, name.split(" "));
+        }
+        keys.add(emails[ordinal]);
+        keys.add(registrations[ordinal]);
+        return keys;
+    }
+
+    private int[] gramsOf(int ordinal) {
+        return gramCodes(names[ordinal] + " " + localPart(emails[ordinal]) + " " + registrations[ordinal]);
+    }
+
+    private int postingSize(int code) {
+        PostingList list = trigrams[code];
+        return list == null ? 0 : list.live;
+    }
+
+    private static String localPart(String email) {
+        int at = email.indexOf('@');
+        return at >= 0 ? email.substring(0, at) : email;
+    }
+
+    /**
+     * Distinct trigram codes of every word in the text, each word padded at both
+     * ends so short words still produce grams ("jon" -> "$jo", "jon", "on$")
+     */
+    static int[] gramCodes(String text) {
+        int[] codes = new int[text.length() * 2 + 2];
+        int count = 0;
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                int first = 0; // Padding symbol
+                int second = symbol(text.charAt(start));
+                for (int j = start + 1; j <= i; j++) {
+                    int third = j < i ? symbol(text.charAt(j)) : 0;
+                    codes[count++] = (first << 12) | (second << 6) | third;
+                    first = second;
+                    second = third;
+                }
+            }
+        }
+        int[] distinct = Arrays.copyOf(codes, count);
+        Arrays.sort(distinct);
+        int unique = 0;
+        for (int j = 0; j < distinct.length; j++) {
+            if (j == 0 || distinct[j] != distinct[j - 1]) {
+                distinct[unique++] = distinct[j];
+            }
+        }
+        return Arrays.copyOf(distinct, unique);
+    }
+
+    // 0 is padding, then letters, digits and one shared symbol for anything else
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') return c - 'a' + 1;
+        if (c >= '0' && c <= '9') return c - '0' + 27;
+        return 37 + (c % 26);
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = baseKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (baseKeys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Merges sorted entries into the base arrays: each entry's position is found by
+    // binary search and the base runs in between are block-copied. Dead entries are
+    // dropped in a separate pass once they make up an eighth of the base
+    private void mergeDelta(List<KeyEntry> sorted) {
+        String[] keys = new String[baseKeys.length + sorted.size()];
+        int[] owners = new int[keys.length];
+        int n = 0;
+        int from = 0;
+        for (KeyEntry entry : sorted) {
+            if (studentIds[entry.ordinal] == null) {
+                continue;
+            }
+            int at = upperBound(entry.key, from);
+            System.arraycopy(baseKeys, from, keys, n, at - from);
+            System.arraycopy(baseOrdinals, from, owners, n, at - from);
+            n += at - from;
+            from = at;
+            keys[n] = entry.key;
+            owners[n++] = entry.ordinal;
+        }
+        System.arraycopy(baseKeys, from, keys, n, baseKeys.length - from);
+        System.arraycopy(baseOrdinals, from, owners, n, baseKeys.length - from);
+        n += baseKeys.length - from;
+
+        if (staleKeys > n / 8) {
+            int live = 0;
+            for (int i = 0; i < n; i++) {
+                if (studentIds[owners[i]] != null) {
+                    keys[live] = keys[i];
+                    owners[live++] = owners[i];
+                }
+            }
+            n = live;
+            staleKeys = 0;
+        }
+        baseKeys = n == keys.length ? keys : Arrays.copyOf(keys, n);
+        baseOrdinals = n == owners.length ? owners : Arrays.copyOf(owners, n);
+    }
+
+    // First base position at or after `from` whose key sorts after the given key;
+    // gallops forward first, since consecutive sorted delta keys land close together
+    private int upperBound(String key, int from) {
+        int low = from;
+        int step = 1;
+        int high = from;
+        while (high < baseKeys.length && baseKeys[high].compareTo(key) <= 0) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, baseKeys.length);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (baseKeys[mid].compareTo(key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void grow() {
+        if (ordinals.size() < nextOrdinal / 2) {
+            renumber();
+            if (nextOrdinal < studentIds.length) {
+                return;
+            }
+        }
+        int capacity = studentIds.length * 2;
+        studentIds = Arrays.copyOf(studentIds, capacity);
+        names = Arrays.copyOf(names, capacity);
+        emails = Arrays.copyOf(emails, capacity);
+        registrations = Arrays.copyOf(registrations, capacity);
+    }
+
+    // Reclaims dead ordinals: renumbers live students densely and rewrites every reference
+    private void renumber() {
+        int[] remap = new int[nextOrdinal];
+        int next = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (studentIds[ordinal] != null) {
+                remap[ordinal] = next;
+                studentIds[next] = studentIds[ordinal];
+                names[next] = names[ordinal];
+                emails[next] = emails[ordinal];
+                registrations[next] = registrations[ordinal];
+                ordinals.put(studentIds[next], next);
+                next++;
+            } else {
+                remap[ordinal] = -1;
+            }
+        }
+        Arrays.fill(studentIds, next, nextOrdinal, null);
+        Arrays.fill(names, next, nextOrdinal, null);
+        Arrays.fill(emails, next, nextOrdinal, null);
+        Arrays.fill(registrations, next, nextOrdinal, null);
+        nextOrdinal = next;
+
+        for (PostingList list : trigrams) {
+            if (list != null) {
+                list.remap(remap);
+            }
+        }
+        List<KeyEntry> pending = new ArrayList<>();
+        for (KeyEntry entry : delta) {
+            if (remap[entry.ordinal] >= 0) {
+                pending.add(new KeyEntry(entry.key, remap[entry.ordinal]));
+            }
+        }
+        delta = pending;
+        int n = 0;
+        for (int i = 0; i < baseKeys.length; i++) {
+            int ordinal = remap[baseOrdinals[i]];
+            if (ordinal >= 0) {
+                baseKeys[n] = baseKeys[i];
+                baseOrdinals[n++] = ordinal;
+            }
+        }
+        baseKeys = Arrays.copyOf(baseKeys, n);
+        baseOrdinals = Arrays.copyOf(baseOrdinals, n);
+        staleKeys = 0;
+    }
+
+    // A prefix key owned by one ordinal, ordered by key then ordinal
+    private static final class KeyEntry implements Comparable<KeyEntry> {
+        final String key;
+        final int ordinal;
+
+        KeyEntry(String key, int ordinal) {
+            this.key = key;
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public int compareTo(KeyEntry other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Integer.compare(ordinal, other.ordinal);
+        }
+    }
+
+    // Trigram counts per ordinal, kept between queries; a query resets only the
+    // ordinals it touched, so it costs O(candidates) rather than O(ordinals)
+    private static final class Tally {
+        int[] values = new int[0];
+        int[] touched = new int[64];
+        int touchedCount;
+
+        void ensureCapacity(int capacity) {
+            if (values.length < capacity) {
+                values = new int[Math.max(capacity, values.length * 2)];
+            }
+        }
+
+        void increment(int ordinal) {
+            if (values[ordinal]++ == 0) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = ordinal;
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                values[touched[i]] = 0;
+            }
+            touchedCount = 0;
+        }
+    }
+
+    // Ordinals containing one trigram; may hold dead ordinals until compacted
+    private static final class PostingList {
+        int[] ordinals = new int[4];
+        int size;
+        int live;
+
+        void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+            live++;
+        }
+
+        void compact(String[] studentIds) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (studentIds[ordinals[i]] != null) {
+                    ordinals[kept++] = ordinals[i];
+                }
+            }
+            size = kept;
+        }
+
+        void remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = remap[ordinals[i]];
+                if (ordinal >= 0) {
+                    ordinals[kept++] = ordinal;
+                }
+            }
+            size = kept;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+import edu.ccrm.util.SortedView;
+import edu.ccrm.util.TopK;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * One page of students in a stable order, with a cursor to the next page
+ * ID and name pages are read from the service's sorted view, seeking to the cursor
+ * in O(log n) and stopping after pageSize + 1 students (plus any inactive ones
+ * skipped). GPA pages are collected in a single pass over the live population,
+ * keeping only the pageSize + 1 smallest positions after the cursor in a TopK heap,
+ * so memory per request is O(page size) however many students there are. Cursors hold the sort
+ * key of the last student returned rather than an offset, so inserts and removals
+ * between requests never shift or repeat the rest of the listing; a student whose
+ * name or GPA changes meanwhile may move across the cursor
+ */
+public final class StudentPage {
+
+    /**
+     * Listing orders; ties are broken by student ID so every order is total
+     */
+    public enum Order {
+        ID,
+        NAME,
+        GPA // Highest first
+    }
+
+    /**
+     * Opaque position after which the next page starts
+     */
+    public static final class Cursor {
+        private final Position after;
+        private final boolean activeOnly;
+
+        private Cursor(Position after, boolean activeOnly) {
+            this.after = after;
+            this.activeOnly = activeOnly;
+        }
+
+        public Order getOrder() { return after.order; }
+
+        public boolean isActiveOnly() { return activeOnly; }
+
+        @Override
+        public String toString() {
+            return String.format("Cursor{order=%s, after='%s'}", after.order, after.id);
+        }
+    }
+
+    private final List<Student> students;
+    private final Cursor nextCursor;
+
+    private StudentPage(List<Student> students, Cursor nextCursor) {
+        this.students = students;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Student> getStudents() {
+        return Collections.unmodifiableList(students);
+    }
+
+    /**
+     * Cursor for the following page, empty on the last page
+     */
+    public Optional<Cursor> getNextCursor() {
+        return Optional.ofNullable(nextCursor);
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    static StudentPage first(Collection<Student> population, Order order, boolean activeOnly, int pageSize) {
+        return collect(population, order, null, activeOnly, pageSize);
+    }
+
+    static StudentPage next(Collection<Student> population, Cursor cursor, int pageSize) {
+        return collect(population, cursor.after.order, cursor.after, cursor.activeOnly, pageSize);
+    }
+
+    // From a view kept in the page order: ID or name, ties by ID
+    static StudentPage first(SortedView<Student, String> view, Order order, boolean activeOnly, int pageSize) {
+        return read(view.stream(), order, activeOnly, pageSize);
+    }
+
+    static StudentPage next(SortedView<Student, String> view, Cursor cursor, int pageSize) {
+        Position after = cursor.after;
+        return read(view.after(after.order == Order.NAME ? after.name : after.id, after.id),
+                    after.order, cursor.activeOnly, pageSize);
+    }
+
+    private static StudentPage read(Stream<Student> ordered, Order order, boolean activeOnly, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        List<Student> students = new ArrayList<>(pageSize + 1);
+        ordered.filter(student -> !activeOnly || student.isActive())
+               .limit(pageSize + 1L)
+               .forEach(students::add);
+        Cursor next = null;
+        if (students.size() > pageSize) {
+            students.remove(pageSize);
+            next = new Cursor(new Position(order, students.get(pageSize - 1)).withoutStudent(), activeOnly);
+        }
+        return new StudentPage(students, next);
+    }
+
+    private static StudentPage collect(Collection<Student> population, Order order, Position after,
+                                       boolean activeOnly, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        // One position more than a page tells whether another page follows
+        Iterable<Position> candidates = () -> population.stream()
+                .filter(student -> !activeOnly || student.isActive())
+                .map(student -> new Position(order, student))
+                .filter(position -> after == null || position.compareTo(after) > 0)
+                .iterator();
+        List<Position> positions = TopK.select(candidates, pageSize + 1, Comparator.naturalOrder());
+
+        boolean more = positions.size() > pageSize;
+        if (more) {
+            positions = positions.subList(0, pageSize);
+        }
+        List<Student> students = new ArrayList<>(positions.size());
+        for (Position position : positions) {
+            students.add(position.student);
+        }
+        Cursor next = more ? new Cursor(positions.get(pageSize - 1).withoutStudent(), activeOnly) : null;
+        return new StudentPage(students, next);
+    }
+
+    // A student's sort key, read once per scan so GPAs are not recomputed on every comparison
+    private static final class Position implements Comparable<Position> {
+        final Order order;
+        final String id;
+        final String name;
+        final double gpa;
+        final Student student; // Null once captured in a cursor
+
+        Position(Order order, Student student) {
+            this(order, student.getId(),
+                 order == Order.NAME ? student.getName() : null,
+                 order == Order.GPA ? student.calculateGPA() : 0.0,
+                 student);
+        }
+
+        private Position(Order order, String id, String name, double gpa, Student student) {
+            this.order = order;
+            this.id = id;
+            this.name = name;
+            this.gpa = gpa;
+            this.student = student;
+        }
+
+        Position withoutStudent() {
+            return new Position(order, id, name, gpa, null);
+        }
+
+        @Override
+        public int compareTo(Position other) {
+            int result = 0;
+            if (order == Order.NAME) {
+                result = name.compareTo(other.name);
+            } else if (order == Order.GPA) {
+                result = Double.compare(other.gpa, gpa);
+            }
+            return result != 0 ? result : id.compareTo(other.id);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StudentPage{students=%d, hasNext=%s}", students.size(), hasNext());
+    }
+}
@@ -0,0 +1,153 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+import java.util.*;
+
+/**
+ * Structured student query: criteria over department, year, status, GPA range and
+ * enrolled course, combined with AND, plus an optional sort and limit
+ * Unlike an opaque predicate the criteria are visible to StudentService's planner,
+ * which answers them from its secondary indexes instead of scanning every student
+ */
+public final class StudentQuery {
+
+    private final String department;
+    private final Integer year;
+    private final Boolean active;
+    private final Double minGpa;
+    private final Double maxGpa;
+    private final String courseId;
+    private final Comparator<Student> order;
+    private final int limit;
+
+    private StudentQuery(Builder builder) {
+        this.department = builder.department;
+        this.year = builder.year;
+        this.active = builder.active;
+        this.minGpa = builder.minGpa;
+        this.maxGpa = builder.maxGpa;
+        this.courseId = builder.courseId;
+        this.order = builder.order;
+        this.limit = builder.limit;
+    }
+
+    public Optional<String> getDepartment() { return Optional.ofNullable(department); }
+
+    public Optional<Integer> getYear() { return Optional.ofNullable(year); }
+
+    public Optional<Boolean> getActive() { return Optional.ofNullable(active); }
+
+    public Optional<Double> getMinGpa() { return Optional.ofNullable(minGpa); }
+
+    public Optional<Double> getMaxGpa() { return Optional.ofNullable(maxGpa); }
+
+    public Optional<String> getCourseId() { return Optional.ofNullable(courseId); }
+
+    public Optional<Comparator<Student>> getOrder() { return Optional.ofNullable(order); }
+
+    // Integer.MAX_VALUE when unlimited
+    public int getLimit() { return limit; }
+
+    public boolean hasGpaRange() {
+        return minGpa != null || maxGpa != null;
+    }
+
+    /**
+     * Whether a student satisfies every criterion, evaluated directly on the object
+     */
+    public boolean matches(Student student) {
+        return (department == null || student.getDepartment().equalsIgnoreCase(department))
+            && (year == null || student.getYear() == year)
+            && (active == null || student.isActive() == active)
+            && (!hasGpaRange() || matchesGpa(student.calculateGPA()))
+            && (courseId == null || student.isEnrolledIn(courseId));
+    }
+
+    boolean matchesGpa(double gpa) {
+        return (minGpa == null || gpa >= minGpa) && (maxGpa == null || gpa <= maxGpa);
+    }
+
+    @Override
+    public String toString() {
+        List<String> criteria = new ArrayList<>();
+        if (department != null) criteria.add("department=" + department);
+        if (year != null) criteria.add("year=" + year);
+        if (active != null) criteria.add("active=" + active);
+        if (hasGpaRange()) criteria.add("gpa=" + describeGpaRange());
+        if (courseId != null) criteria.add("course=" + courseId);
+        if (order != null) criteria.add("sorted");
+        if (limit != Integer.MAX_VALUE) criteria.add("limit=" + limit);
+        return "StudentQuery" + criteria;
+    }
+
+    String describeGpaRange() {
+        return String.format("[%s, %s]",
+                           minGpa == null ? "-" : String.format("%.2f", minGpa),
+                           maxGpa == null ? "-" : String.format("%.2f", maxGpa));
+    }
+
+    public static class Builder {
+        private String department;
+        private Integer year;
+        private Boolean active;
+        private Double minGpa;
+        private Double maxGpa;
+        private String courseId;
+        private Comparator<Student> order;
+        private int limit = Integer.MAX_VALUE;
+
+        public Builder department(String department) {
+            this.department = department;
+            return this;
+        }
+
+        public Builder year(int year) {
+            this.year = year;
+            return this;
+        }
+
+        public Builder active(boolean active) {
+            this.active = active;
+            return this;
+        }
+
+        public Builder minGpa(double minGpa) {
+            this.minGpa = minGpa;
+            return this;
+        }
+
+        public Builder maxGpa(double maxGpa) {
+            this.maxGpa = maxGpa;
+            return this;
+        }
+
+        public Builder gpaBetween(double minGpa, double maxGpa) {
+            return minGpa(minGpa).maxGpa(maxGpa);
+        }
+
+        public Builder enrolledIn(String courseId) {
+            this.courseId = courseId;
+            return this;
+        }
+
+        public Builder sortBy(Comparator<Student> order) {
+            this.order = Objects.requireNonNull(order, "Order cannot be null");
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit cannot be negative: " + limit);
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public StudentQuery build() {
+            if (minGpa != null && maxGpa != null && minGpa > maxGpa) {
+                throw new IllegalArgumentException("Empty GPA range: " + minGpa + " > " + maxGpa);
+            }
+            return new StudentQuery(this);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+import edu.ccrm.util.StringDictionary;
+import java.util.*;
+
+/**
+ * Secondary indexes over student attributes, and the planner that uses them
+ * Student IDs are kept in hash sets per department code, year, status, GPA bucket
+ * (0.01 wide) and enrolled course. Each student's last indexed entry is remembered
+ * so an update only moves the IDs whose attributes changed. Set sizes are exact,
+ * which gives the planner exact cardinalities to pick the most selective index.
+ * Not thread-safe; StudentService guards it
+ */
+final class StudentQueryIndex {
+
+    private static final int GPA_SCALE = 100;
+    // Probing an index set only pays off while it still rules out most students
+    private static final double MAX_PROBE_SELECTIVITY = 0.5;
+    private static final int MAX_PROBE_SETS = 4;
+
+    private final Map<Integer, Set<String>> byDepartment = new HashMap<>();
+    private final Map<Integer, Set<String>> byYear = new HashMap<>();
+    private final Map<Boolean, Set<String>> byStatus = new HashMap<>();
+    private final NavigableMap<Integer, Set<String>> byGpa = new TreeMap<>();
+    private final Map<String, Set<String>> byCourse = new HashMap<>();
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    // Attribute values a student is currently indexed under
+    private static final class Entry {
+        final int departmentCode;
+        final int year;
+        final boolean active;
+        final int gpaBucket;
+        final Set<String> courses;
+
+        Entry(Student student) {
+            this.departmentCode = student.getDepartmentCode();
+            this.year = student.getYear();
+            this.active = student.isActive();
+            this.gpaBucket = gpaBucket(student.calculateGPA());
+            this.courses = student.getEnrolledCourses();
+        }
+
+        boolean sameAs(Entry other) {
+            return departmentCode == other.departmentCode && year == other.year && active == other.active
+                && gpaBucket == other.gpaBucket && courses.equals(other.courses);
+        }
+    }
+
+    /**
+     * Indexes a student's current attributes, replacing what was indexed before
+     */
+    void update(Student student) {
+        String id = student.getId();
+        Entry current = new Entry(student);
+        Entry previous = entries.put(id, current);
+        if (previous != null) {
+            if (previous.sameAs(current)) {
+                return;
+            }
+            apply(id, previous, false);
+        }
+        apply(id, current, true);
+    }
+
+    void remove(String studentId) {
+        Entry previous = entries.remove(studentId);
+        if (previous != null) {
+            apply(studentId, previous, false);
+        }
+    }
+
+    void rebuild(Collection<Student> students) {
+        clear();
+        students.forEach(this::update);
+    }
+
+    void clear() {
+        byDepartment.clear();
+        byYear.clear();
+        byStatus.clear();
+        byGpa.clear();
+        byCourse.clear();
+        entries.clear();
+    }
+
+    /**
+     * Chooses how to answer a query over a population of the given size
+     * The criterion with the fewest matching IDs drives the scan; other selective
+     * criteria are intersected on IDs before students are resolved, and the rest
+     * become residual filters. Without a selective index the plan is a full scan
+     */
+    StudentQueryPlan plan(StudentQuery query, int population) {
+        List<StudentQueryPlan.Access> accesses = new ArrayList<>();
+        List<StudentQueryPlan.Filter> filters = new ArrayList<>();
+
+        query.getDepartment().ifPresent(department -> {
+            Set<Integer> codes = StringDictionary.DEPARTMENTS.lookupIgnoreCase(department);
+            List<Set<String>> sets = new ArrayList<>();
+            codes.forEach(code -> addIfPresent(sets, byDepartment.get(code)));
+            accesses.add(new StudentQueryPlan.Access("department = " + department, sets, true,
+                student -> codes.contains(student.getDepartmentCode())));
+        });
+        query.getYear().ifPresent(year -> {
+            List<Set<String>> sets = new ArrayList<>();
+            addIfPresent(sets, byYear.get(year));
+            accesses.add(new StudentQueryPlan.Access("year = " + year, sets, true,
+                student -> student.getYear() == year));
+        });
+        query.getActive().ifPresent(active -> {
+            List<Set<String>> sets = new ArrayList<>();
+            addIfPresent(sets, byStatus.get(active));
+            accesses.add(new StudentQueryPlan.Access("active = " + active, sets, true,
+                student -> student.isActive() == active));
+        });
+        query.getCourseId().ifPresent(courseId -> {
+            List<Set<String>> sets = new ArrayList<>();
+            addIfPresent(sets, byCourse.get(courseId));
+            accesses.add(new StudentQueryPlan.Access("course = " + courseId, sets, true,
+                student -> student.isEnrolledIn(courseId)));
+        });
+        if (query.hasGpaRange()) {
+            // Buckets are 0.01 wide, so the edge buckets are rechecked against the exact GPA
+            int low = query.getMinGpa().map(StudentQueryIndex::gpaBucket).orElse(Integer.MIN_VALUE);
+            int high = query.getMaxGpa().map(StudentQueryIndex::gpaBucket).orElse(Integer.MAX_VALUE);
+            List<Set<String>> sets = new ArrayList<>(byGpa.subMap(low, true, high, true).values());
+            accesses.add(new StudentQueryPlan.Access("gpa in " + query.describeGpaRange(), sets, false,
+                student -> query.matchesGpa(student.calculateGPA())));
+        }
+
+        accesses.sort(Comparator.comparingInt(StudentQueryPlan.Access::getEstimate));
+        StudentQueryPlan.Access driver = null;
+        List<StudentQueryPlan.Access> probes = new ArrayList<>();
+        if (!accesses.isEmpty() && accesses.get(0).getEstimate() <= population * MAX_PROBE_SELECTIVITY) {
+            driver = accesses.get(0);
+            if (!driver.isExact()) {
+                filters.add(driver.asFilter());
+            }
+            for (StudentQueryPlan.Access access : accesses.subList(1, accesses.size())) {
+                if (access.isExact() && access.getSetCount() <= MAX_PROBE_SETS
+                        && access.getEstimate() <= population * MAX_PROBE_SELECTIVITY) {
+                    probes.add(access);
+                } else {
+                    filters.add(access.asFilter());
+                }
+            }
+        } else {
+            accesses.forEach(access -> filters.add(access.asFilter()));
+        }
+        return new StudentQueryPlan(query, population, driver, probes, filters);
+    }
+
+    private void apply(String id, Entry entry, boolean add) {
+        change(byDepartment, entry.departmentCode, id, add);
+        change(byYear, entry.year, id, add);
+        change(byStatus, entry.active, id, add);
+        change(byGpa, entry.gpaBucket, id, add);
+        for (String courseId : entry.courses) {
+            change(byCourse, courseId, id, add);
+        }
+    }
+
+    private static <K> void change(Map<K, Set<String>> index, K key, String id, boolean add) {
+        if (add) {
+            index.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+            return;
+        }
+        Set<String> ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static void addIfPresent(List<Set<String>> sets, Set<String> ids) {
+        if (ids != null) {
+            sets.add(ids);
+        }
+    }
+
+    private static int gpaBucket(double gpa) {
+        return (int) Math.floor(gpa * GPA_SCALE);
+    }
+}
@@ -0,0 +1,303 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * How a StudentQuery is answered: a driving index scan (or a full scan), ID
+ * intersections with further indexes, residual filters, then sort and limit
+ * explain() renders the plan with its estimated row counts; a Result adds what
+ * actually happened, so tests and operators can verify which plan ran
+ */
+public final class StudentQueryPlan {
+
+    /**
+     * One line of the plan
+     */
+    public static final class Step {
+        private final String operation;
+        private final String detail;
+        private final int estimate; // -1 when not applicable
+
+        Step(String operation, String detail, int estimate) {
+            this.operation = operation;
+            this.detail = detail;
+            this.estimate = estimate;
+        }
+
+        public String getOperation() { return operation; }
+
+        public String getDetail() { return detail; }
+
+        public int getEstimate() { return estimate; }
+
+        @Override
+        public String toString() {
+            return estimate < 0 ? String.format("%s %s", operation, detail)
+                                : String.format("%s %s (est. %d rows)", operation, detail, estimate);
+        }
+    }
+
+    // A criterion backed by index sets (disjoint, so sizes add up) and its direct check
+    static final class Access {
+        private final String description;
+        private final List<Set<String>> sets;
+        private final boolean exact; // False when the sets over-approximate the criterion
+        private final Predicate<Student> check;
+        private final int estimate;
+
+        Access(String description, List<Set<String>> sets, boolean exact, Predicate<Student> check) {
+            this.description = description;
+            this.sets = sets;
+            this.exact = exact;
+            this.check = check;
+            int total = 0;
+            for (Set<String> ids : sets) {
+                total += ids.size();
+            }
+            this.estimate = total;
+        }
+
+        int getEstimate() { return estimate; }
+
+        int getSetCount() { return sets.size(); }
+
+        boolean isExact() { return exact; }
+
+        boolean contains(String id) {
+            for (Set<String> ids : sets) {
+                if (ids.contains(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Filter asFilter() {
+            return new Filter(description, check);
+        }
+    }
+
+    // A residual predicate evaluated on resolved students
+    static final class Filter {
+        private final String description;
+        private final Predicate<Student> check;
+
+        Filter(String description, Predicate<Student> check) {
+            this.description = description;
+            this.check = check;
+        }
+    }
+
+    private final StudentQuery query;
+    private final int population;
+    private final Access driver; // Null for a full scan
+    private final List<Access> probes;
+    private final List<Filter> filters;
+    private final List<Step> steps = new ArrayList<>();
+    private final int estimatedRows;
+
+    StudentQueryPlan(StudentQuery query, int population, Access driver, List<Access> probes, List<Filter> filters) {
+        this.query = query;
+        this.population = population;
+        this.driver = driver;
+        this.probes = probes;
+        this.filters = filters;
+
+        double rows;
+        if (driver == null) {
+            rows = population;
+            steps.add(new Step("FULL SCAN", "students", population));
+        } else {
+            rows = driver.estimate;
+            steps.add(new Step("INDEX SCAN", driver.description, driver.estimate));
+        }
+        for (Access probe : probes) {
+            // Estimates assume the criteria are independent
+            rows *= population == 0 ? 0 : (double) probe.estimate / population;
+            steps.add(new Step("INTERSECT", probe.description, (int) Math.ceil(rows)));
+        }
+        for (Filter filter : filters) {
+            steps.add(new Step("FILTER", filter.description, -1));
+        }
+        int limit = query.getLimit();
+        if (query.getOrder().isPresent()) {
+            steps.add(limit == Integer.MAX_VALUE ? new Step("SORT", "all matches", -1)
+                                                 : new Step("TOP-N SORT", "limit " + limit, -1));
+        } else if (limit != Integer.MAX_VALUE) {
+            steps.add(new Step("LIMIT", limit + " (stops early)", -1));
+        }
+        this.estimatedRows = (int) Math.ceil(rows);
+    }
+
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    public boolean isFullScan() {
+        return driver == null;
+    }
+
+    /**
+     * Criterion of the driving index scan, empty for a full scan
+     */
+    public Optional<String> getDrivingIndex() {
+        return driver == null ? Optional.empty() : Optional.of(driver.description);
+    }
+
+    /**
+     * Human-readable plan, one step per line
+     */
+    public String explain() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%s over %d students%n", query, population));
+        for (int i = 0; i < steps.size(); i++) {
+            text.append(String.format("  %d. %s%n", i + 1, steps.get(i)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Runs the plan against the service's students
+     */
+    Result execute(Map<String, Student> students) {
+        int limit = query.getLimit();
+        Comparator<Student> order = query.getOrder().orElse(null);
+        // Without an order the first `limit` matches will do; with one, keep the best in a bounded heap
+        PriorityQueue<Student> best = order != null && limit != Integer.MAX_VALUE
+                ? new PriorityQueue<>(order.reversed()) : null;
+        List<Student> matches = new ArrayList<>();
+        int examined = 0;
+        int matched = 0;
+
+        Iterator<Student> candidates = driver == null ? students.values().iterator()
+                                                      : resolve(driver, students);
+        while (candidates.hasNext() && (order != null || matches.size() < limit)) {
+            Student student = candidates.next();
+            examined++;
+            if (!passesFilters(student)) {
+                continue;
+            }
+            matched++;
+            if (best != null) {
+                if (limit == 0) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(student);
+                } else if (order.compare(student, best.peek()) < 0) {
+                    best.poll();
+                    best.add(student);
+                }
+            } else {
+                matches.add(student);
+            }
+        }
+
+        if (best != null) {
+            matches.addAll(best);
+        }
+        if (order != null) {
+            matches.sort(order);
+        }
+        return new Result(this, matches, examined, matched);
+    }
+
+    // Students behind the driver's IDs that also pass every intersection, resolved lazily
+    private Iterator<Student> resolve(Access access, Map<String, Student> students) {
+        Iterator<Set<String>> sets = access.sets.iterator();
+        return new Iterator<Student>() {
+            private Iterator<String> ids = Collections.emptyIterator();
+            private Student next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    if (!ids.hasNext()) {
+                        if (!sets.hasNext()) {
+                            return false;
+                        }
+                        ids = sets.next().iterator();
+                        continue;
+                    }
+                    String id = ids.next();
+                    if (intersects(id)) {
+                        next = students.get(id);
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public Student next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Student student = next;
+                next = null;
+                return student;
+            }
+        };
+    }
+
+    private boolean intersects(String id) {
+        for (Access probe : probes) {
+            if (!probe.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean passesFilters(Student student) {
+        for (Filter filter : filters) {
+            if (!filter.check.test(student)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Students returned by a query, with the plan that produced them
+     */
+    public static final class Result {
+        private final StudentQueryPlan plan;
+        private final List<Student> students;
+        private final int examined;
+        private final int matched;
+
+        Result(StudentQueryPlan plan, List<Student> students, int examined, int matched) {
+            this.plan = plan;
+            this.students = students;
+            this.examined = examined;
+            this.matched = matched;
+        }
+
+        public StudentQueryPlan getPlan() { return plan; }
+
+        public List<Student> getStudents() {
+            return Collections.unmodifiableList(students);
+        }
+
+        // Students resolved and run through the filters
+        public int getExamined() { return examined; }
+
+        // Matches before the limit was applied (a lower bound when the scan stopped early)
+        public int getMatched() { return matched; }
+
+        /**
+         * The plan followed by estimated versus actual row counts
+         */
+        public String explain() {
+            return plan.explain() + String.format("  examined %d, matched %d, returned %d (estimated %d)%n",
+                                                  examined, matched, students.size(), plan.estimatedRows);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("StudentQueryPlan.Result{returned=%d, examined=%d}", students.size(), examined);
+        }
+    }
+}
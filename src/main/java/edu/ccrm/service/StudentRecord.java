@@ -0,0 +1,84 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import java.util.*;
+
+/**
+ * Immutable point-in-time copy of a student, as held by a StudentSnapshot
+ */
+public final class StudentRecord {
+    private final String id;
+    private final String name;
+    private final String email;
+    private final String registrationNumber;
+    private final int year;
+    private final String department;
+    private final boolean active;
+    private final Set<String> enrolledCourses;
+    private final Map<String, Grade> grades;
+    private final Map<String, Integer> courseCredits;
+    private final Map<String, Double> semesterGPAs;
+    private final double gpa;
+    private final int gradedCredits;
+    private final int failedCourses;
+
+    StudentRecord(Student student) {
+        this.id = student.getId();
+        this.name = student.getName();
+        this.email = student.getEmail();
+        this.registrationNumber = student.getRegistrationNumber();
+        this.year = student.getYear();
+        this.department = student.getDepartment();
+        this.active = student.isActive();
+        this.enrolledCourses = Collections.unmodifiableSet(student.getEnrolledCourses());
+        this.grades = Collections.unmodifiableMap(student.getAllGrades());
+        Map<String, Integer> credits = new HashMap<>();
+        grades.keySet().forEach(courseId -> credits.put(courseId, student.getCourseCredits(courseId)));
+        this.courseCredits = Collections.unmodifiableMap(credits);
+        this.semesterGPAs = Collections.unmodifiableMap(student.getSemesterGPAs());
+        this.gpa = student.calculateGPA();
+        this.gradedCredits = student.getGradedCredits();
+        this.failedCourses = student.getFailedCourseCount();
+    }
+
+    public String getId() { return id; }
+
+    public String getName() { return name; }
+
+    public String getEmail() { return email; }
+
+    public String getRegistrationNumber() { return registrationNumber; }
+
+    public int getYear() { return year; }
+
+    public String getDepartment() { return department; }
+
+    public boolean isActive() { return active; }
+
+    public Set<String> getEnrolledCourses() { return enrolledCourses; }
+
+    public Map<String, Grade> getGrades() { return grades; }
+
+    public int getCourseCredits(String courseId) {
+        return courseCredits.getOrDefault(courseId, 0);
+    }
+
+    public Map<String, Double> getSemesterGPAs() { return semesterGPAs; }
+
+    public double getGpa() { return gpa; }
+
+    public int getGradedCredits() { return gradedCredits; }
+
+    public int getFailedCourseCount() { return failedCourses; }
+
+    public int getPassedCourseCount() {
+        return grades.size() - failedCourses;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StudentRecord{id='%s', name='%s', dept='%s', year=%d, gpa=%.2f}",
+                           id, name, department, year, gpa);
+    }
+}
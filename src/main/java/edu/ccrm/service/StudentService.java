@@ -2,29 +2,110 @@ package edu.ccrm.service;
 
 import edu.ccrm.domain.*;
 import edu.ccrm.config.AppConfig;
+import edu.ccrm.event.DomainEvent;
+import edu.ccrm.event.DomainEventBus;
+import edu.ccrm.io.GradeRecord;
+import edu.ccrm.util.ComparatorUtils;
+import edu.ccrm.util.IntervalTree;
+import edu.ccrm.util.PersistentHashMap;
+import edu.ccrm.util.SortedView;
+import edu.ccrm.util.TopK;
 import edu.ccrm.util.ValidationUtils;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
  * Service class for student operations
  * Demonstrates business logic layer and functional programming
+ * Mutations are serialized on the service monitor; reports read from an immutable
+ * StudentSnapshot so they never block writers or observe a half-applied change
  */
 public class StudentService {
 
+    // Below this, splitting a top-k selection across threads costs more than it saves
+    private static final int PARALLEL_TOP_K_THRESHOLD = 100_000;
+    // Records copied per lock hold while a snapshot is built from scratch
+    private static final int SNAPSHOT_CHUNK_SIZE = 1024;
+
     private final Map<String, Student> students;
+    private final EnrollmentLedger ledger;
+    private final RankService rankService;
+    private final DepartmentSummaryCache departmentSummaries;
+    private final DomainEventBus events;
+
+    // Copy-on-write snapshot state: student ID -> version of its latest change not in the last snapshot
+    private final Map<String, Long> dirtyStudents = new HashMap<>();
+    private boolean snapshotRebuildRequired = true;
+    private int fullSnapshotBuilds; // Full copies in progress; changes are tracked while any runs
+    private long loadGeneration; // Bumped by loadStudents so in-flight snapshot builds notice
+    private volatile long version;
+    private volatile StudentSnapshot lastSnapshot;
     private final AppConfig config;
+    private Function<String, Course> courseLookup = courseId -> null;
+    // Student -> meeting slots of their active courses, built lazily and dropped when stale
+    private final Map<String, IntervalTree<String>> timetables = new HashMap<>();
+    private final StudentNameIndex nameIndex = new StudentNameIndex();
+    private final PersonChangeListener nameListener = new NameListener();
+    private final StudentQueryIndex queryIndex = new StudentQueryIndex();
+    // Orderings the UI reads repeatedly, kept sorted as students change
+    private final Map<Comparator<Student>, SortedView<Student, ?>> sortedViews = new HashMap<>();
+    private final SortedView<Student, String> byName =
+        new SortedView<>(Student::getId, Student::getName, Comparator.<String>naturalOrder());
+    private final SortedView<Student, String> byId =
+        new SortedView<>(Student::getId, Student::getId, Comparator.<String>naturalOrder());
 
     public StudentService() {
-        this.students = new HashMap<>();
+        this.students = new ConcurrentHashMap<>();
+        this.ledger = new EnrollmentLedger();
+        this.rankService = new RankService();
+        this.departmentSummaries = new DepartmentSummaryCache(students::get, students::values);
+        this.events = new DomainEventBus();
+        events.subscribe(departmentSummaries);
         this.config = AppConfig.getInstance();
+        sortedViews.put(ComparatorUtils.BY_NAME, byName);
+        sortedViews.put(ComparatorUtils.BY_STUDENT_ID, byId);
+        sortedViews.put(ComparatorUtils.BY_REGISTRATION_NUMBER,
+            new SortedView<>(Student::getId, Student::getRegistrationNumber, Comparator.<String>naturalOrder()));
+        sortedViews.put(ComparatorUtils.BY_DEPARTMENT_THEN_YEAR, new SortedView<>(
+            Student::getId,
+            student -> new AbstractMap.SimpleImmutableEntry<>(student.getDepartment(), student.getYear()),
+            Map.Entry.<String, Integer>comparingByKey().thenComparing(Map.Entry.comparingByValue())));
+    }
+
+    /**
+     * Gets the bus on which student, enrollment and grade changes are published
+     */
+    public DomainEventBus getEventBus() {
+        return events;
+    }
+
+    /**
+     * Sets how course IDs are resolved to courses (e.g. to keep course grade histograms current)
+     */
+    public void setCourseLookup(Function<String, Course> courseLookup) {
+        this.courseLookup = Objects.requireNonNull(courseLookup, "Course lookup cannot be null");
+    }
+
+    /**
+     * Resolves courses through a catalog and drops cached timetables when its
+     * courses are rescheduled, removed or reloaded
+     */
+    public void setCourseCatalog(CourseService courseService) {
+        setCourseLookup(courseService.asMap()::get);
+        courseService.addCatalogListener(new TimetableSync());
     }
 
     /**
      * Creates a new student with validation
      */
-    public Student createStudent(String id, String name, String email, 
+    public synchronized Student createStudent(String id, String name, String email, 
                                String registrationNumber, int year, String department) 
                                throws IllegalArgumentException {
 
@@ -57,6 +138,11 @@ public class StudentService {
 
         Student student = new Student(id, name, email, registrationNumber, year, department);
         students.put(id, student);
+        indexName(student);
+        studentChanged(student);
+        if (events.hasListeners()) {
+            events.publish(DomainEvent.studentEvent(DomainEvent.Type.STUDENT_CREATED, id));
+        }
 
         return student;
     }
@@ -64,7 +150,7 @@ public class StudentService {
     /**
      * Updates an existing student
      */
-    public Student updateStudent(String id, String name, String email, 
+    public synchronized Student updateStudent(String id, String name, String email, 
                                int year, String department) throws IllegalArgumentException {
 
         Student student = students.get(id);
@@ -81,13 +167,44 @@ public class StudentService {
         if (ValidationUtils.isValidYear(year)) {
             student.setYear(year);
         }
+        String previousDepartment = student.getDepartment();
         if (department != null && !department.trim().isEmpty()) {
             student.setDepartment(department);
         }
+        studentChanged(student);
+
+        if (events.hasListeners()) {
+            events.publish(DomainEvent.studentEvent(DomainEvent.Type.STUDENT_UPDATED, id));
+            // Departments are canonical, so identity tells whether it changed
+            if (previousDepartment != student.getDepartment()) {
+                events.publish(DomainEvent.departmentChanged(id, previousDepartment, student.getDepartment()));
+            }
+        }
 
         return student;
     }
 
+    /**
+     * Compare-and-set variant of updateStudent
+     * Applies the update only if the student is still at expectedVersion (as read by
+     * the caller via Student.getVersion), otherwise throws a retryable StaleVersionException
+     */
+    public synchronized Student updateStudent(String id, long expectedVersion, String name, String email,
+                                              int year, String department) throws StaleVersionException {
+        Student student = students.get(id);
+        if (student == null) {
+            throw new IllegalArgumentException("Student not found: " + id);
+        }
+        // The student's setters take its monitor too, so a direct setter call cannot slip
+        // in between the check and the update
+        synchronized (student) {
+            if (student.getVersion() != expectedVersion) {
+                throw new StaleVersionException(id, expectedVersion, student.getVersion());
+            }
+            return updateStudent(id, name, email, year, department);
+        }
+    }
+
     /**
      * Gets student by ID
      */
@@ -95,6 +212,130 @@ public class StudentService {
         return Optional.ofNullable(students.get(id));
     }
 
+    /**
+     * Pins a consistent, immutable snapshot of all students
+     * Returns the previous snapshot when nothing has changed. Otherwise only the records
+     * of students changed since then are copied under the lock, and applied after
+     * releasing it to the previous snapshot's persistent map, which shares everything
+     * else: O(changes x log n) per snapshot, not O(n). A snapshot with no predecessor
+     * (the first, or the first after a load) is copied in chunks, taking the lock
+     * once per chunk, then patched with whatever changed meanwhile
+     */
+    public StudentSnapshot snapshot() {
+        while (true) {
+            StudentSnapshot current = lastSnapshot;
+            if (current != null && current.getVersion() == version) {
+                return current;
+            }
+            StudentSnapshot base;
+            long atVersion;
+            long generation;
+            Map<String, StudentRecord> changes = new HashMap<>();
+            synchronized (this) {
+                current = lastSnapshot;
+                if (current != null && current.getVersion() == version) {
+                    return current;
+                }
+                base = snapshotRebuildRequired ? null : current;
+                atVersion = version;
+                generation = loadGeneration;
+                if (base != null) {
+                    for (String id : dirtyStudents.keySet()) {
+                        Student student = students.get(id);
+                        changes.put(id, student == null ? null : new StudentRecord(student));
+                    }
+                }
+            }
+            if (base == null) {
+                StudentSnapshot built = buildFullSnapshot();
+                if (built != null) {
+                    return built;
+                }
+                continue; // A load replaced the students mid-copy
+            }
+            PersistentHashMap<String, StudentRecord> records = applyChanges(base.records(), changes);
+            synchronized (this) {
+                return publishSnapshot(records, atVersion, generation);
+            }
+        }
+    }
+
+    // Copies every student chunk by chunk; null if a load intervened
+    private StudentSnapshot buildFullSnapshot() {
+        long startVersion;
+        long generation;
+        synchronized (this) {
+            fullSnapshotBuilds++;
+            startVersion = version;
+            generation = loadGeneration;
+        }
+        try {
+            PersistentHashMap<String, StudentRecord> records = PersistentHashMap.empty();
+            List<Student> chunk = new ArrayList<>(SNAPSHOT_CHUNK_SIZE);
+            for (Student student : students.values()) {
+                chunk.add(student);
+                if (chunk.size() == SNAPSHOT_CHUNK_SIZE) {
+                    records = copyChunk(chunk, records);
+                    chunk.clear();
+                }
+            }
+            records = copyChunk(chunk, records);
+
+            synchronized (this) {
+                if (generation != loadGeneration) {
+                    return null;
+                }
+                // Students added, removed or changed after the copy started
+                Map<String, StudentRecord> changes = new HashMap<>();
+                dirtyStudents.forEach((id, changedAt) -> {
+                    if (changedAt > startVersion) {
+                        Student student = students.get(id);
+                        changes.put(id, student == null ? null : new StudentRecord(student));
+                    }
+                });
+                return publishSnapshot(applyChanges(records, changes), version, generation);
+            }
+        } finally {
+            synchronized (this) {
+                fullSnapshotBuilds--;
+            }
+        }
+    }
+
+    private synchronized PersistentHashMap<String, StudentRecord> copyChunk(
+            List<Student> chunk, PersistentHashMap<String, StudentRecord> records) {
+        for (Student student : chunk) {
+            if (students.get(student.getId()) == student) {
+                records = records.plus(student.getId(), new StudentRecord(student));
+            }
+        }
+        return records;
+    }
+
+    // A null record marks a removed student
+    private static PersistentHashMap<String, StudentRecord> applyChanges(
+            PersistentHashMap<String, StudentRecord> records, Map<String, StudentRecord> changes) {
+        for (Map.Entry<String, StudentRecord> change : changes.entrySet()) {
+            records = change.getValue() == null ? records.minus(change.getKey())
+                                                : records.plus(change.getKey(), change.getValue());
+        }
+        return records;
+    }
+
+    // Makes the snapshot the base for the next one unless a newer one or a load got there first
+    private StudentSnapshot publishSnapshot(PersistentHashMap<String, StudentRecord> records, long atVersion,
+                                            long generation) {
+        StudentSnapshot snapshot = new StudentSnapshot(atVersion, records);
+        StudentSnapshot current = lastSnapshot;
+        if (generation == loadGeneration
+                && (snapshotRebuildRequired || current == null || current.getVersion() < atVersion)) {
+            lastSnapshot = snapshot;
+            snapshotRebuildRequired = false;
+            dirtyStudents.values().removeIf(changedAt -> changedAt <= atVersion);
+        }
+        return snapshot;
+    }
+
     /**
      * Gets all students
      */
@@ -111,8 +352,208 @@ public class StudentService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * First page of students in the given order
+     * ID and name pages are read from the sorted views; GPA pages scan the live
+     * population without copying it. Memory is bounded by the page size
+     */
+    public StudentPage listStudents(StudentPage.Order order, boolean activeOnly, int pageSize) {
+        Objects.requireNonNull(order, "Order cannot be null");
+        SortedView<Student, String> view = pageView(order);
+        return view != null ? StudentPage.first(view, order, activeOnly, pageSize)
+                            : StudentPage.first(students.values(), order, activeOnly, pageSize);
+    }
+
+    /**
+     * The page after a cursor returned by an earlier page
+     */
+    public StudentPage listStudents(StudentPage.Cursor cursor, int pageSize) {
+        Objects.requireNonNull(cursor, "Cursor cannot be null");
+        SortedView<Student, String> view = pageView(cursor.getOrder());
+        return view != null ? StudentPage.next(view, cursor, pageSize)
+                            : StudentPage.next(students.values(), cursor, pageSize);
+    }
+
+    // The view kept in a page order, null for GPA, whose key changes with every grade
+    private SortedView<Student, String> pageView(StudentPage.Order order) {
+        switch (order) {
+            case ID: return byId;
+            case NAME: return byName;
+            default: return null;
+        }
+    }
+
+    /**
+     * The k first students in the given order, without copying or sorting the population
+     * Large populations are split across threads, one bounded heap per split
+     */
+    public List<Student> topStudents(int k, Comparator<? super Student> order) {
+        if (students.size() >= PARALLEL_TOP_K_THRESHOLD) {
+            return TopK.parallelSelect(students.values(), k, order);
+        }
+        return TopK.select(students.values(), k, order);
+    }
+
+    /**
+     * The k students with the highest GPA, ties by ID; each GPA is computed once
+     */
+    public List<Student> topStudentsByGpa(int k) {
+        Stream<Student> population = students.size() >= PARALLEL_TOP_K_THRESHOLD
+                ? students.values().parallelStream() : students.values().stream();
+        return population.map(ComparatorUtils.GPA_KEY)
+                         .collect(TopK.collector(k, ComparatorUtils.BY_GPA_KEY))
+                         .stream()
+                         .map(ComparatorUtils.Keyed::getValue)
+                         .collect(Collectors.toList());
+    }
+
+    /**
+     * Streams all students in the given order
+     * Registered orderings (ComparatorUtils BY_NAME, BY_STUDENT_ID, BY_REGISTRATION_NUMBER
+     * and BY_DEPARTMENT_THEN_YEAR) are read from a maintained sorted view without sorting,
+     * ties by student ID; any other order sorts a snapshot
+     */
+    public Stream<Student> streamSorted(Comparator<Student> order) {
+        SortedView<Student, ?> view = sortedViews.get(order);
+        if (view != null) {
+            return view.stream();
+        }
+        return students.values().stream().sorted(order);
+    }
+
+    public boolean hasSortedView(Comparator<Student> order) {
+        return sortedViews.containsKey(order);
+    }
+
+    /**
+     * Streams the live population without copying it, in no particular order
+     */
+    public Stream<Student> streamStudents() {
+        return students.values().stream();
+    }
+
+    /**
+     * Streams students in a stable order, fetching one page at a time as it is consumed
+     * Holds at most one page; each ID or name page costs a seek in the sorted view,
+     * each GPA page a pass over the population
+     */
+    public Stream<Student> streamStudents(StudentPage.Order order, boolean activeOnly, int pageSize) {
+        Objects.requireNonNull(order, "Order cannot be null");
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        Iterator<Student> pages = new Iterator<Student>() {
+            private StudentPage page = listStudents(order, activeOnly, pageSize);
+            private Iterator<Student> current = page.getStudents().iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    if (!page.hasNext()) {
+                        return false;
+                    }
+                    page = listStudents(page.getNextCursor().get(), pageSize);
+                    current = page.getStudents().iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public Student next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+            pages, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Students whose name, any name word, email or registration number starts with
+     * the given text (case-insensitive)
+     */
+    public synchronized List<Student> searchByPrefix(String prefix, int limit) {
+        return resolve(nameIndex.prefixSearch(prefix, limit));
+    }
+
+    /**
+     * Typo-tolerant lookup by name, email or registration number, closest matches first
+     */
+    public synchronized List<Student> fuzzySearch(String query, int limit) {
+        return resolve(nameIndex.fuzzySearch(query, limit));
+    }
+
+    private List<Student> resolve(List<String> studentIds) {
+        List<Student> result = new ArrayList<>(studentIds.size());
+        for (String studentId : studentIds) {
+            Student student = students.get(studentId);
+            if (student != null) {
+                result.add(student);
+            }
+        }
+        return result;
+    }
+
+    private void indexName(Student student) {
+        nameIndex.add(student);
+        student.addChangeListener(nameListener);
+    }
+
+    // Drops the cached timetables a catalog change makes stale; they are rebuilt on next use
+    private final class TimetableSync implements CatalogListener {
+        @Override
+        public void scheduleChanged(Course course) {
+            invalidate(course);
+        }
+
+        @Override
+        public void courseRemoved(Course course) {
+            invalidate(course);
+        }
+
+        @Override
+        public void coursesLoaded(Collection<Course> courses) {
+            synchronized (StudentService.this) {
+                timetables.clear();
+            }
+        }
+
+        private void invalidate(Course course) {
+            synchronized (StudentService.this) {
+                course.enrolledStudentsView().forEach(timetables::remove);
+            }
+        }
+    }
+
+    // Re-indexes a student whose name or email was changed, through the service or directly
+    private final class NameListener implements PersonChangeListener {
+        @Override
+        public void nameChanged(Person person, String previousName, String currentName) {
+            reindex(person);
+        }
+
+        @Override
+        public void emailChanged(Person person, String previousEmail, String currentEmail) {
+            reindex(person);
+        }
+
+        private void reindex(Person person) {
+            synchronized (StudentService.this) {
+                if (students.get(person.getId()) == person) {
+                    nameIndex.add((Student) person);
+                    sortedViews.values().forEach(view -> view.add((Student) person));
+                    // Snapshot records carry the name and email too
+                    markChanged(person.getId());
+                }
+            }
+        }
+    }
+
     /**
      * Searches students by various criteria using predicates
+     * Always a full scan; query(StudentQuery) can use the secondary indexes
      */
     public List<Student> searchStudents(Predicate<Student> criteria) {
         return students.values().stream()
@@ -120,32 +561,50 @@ public class StudentService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Runs a structured query through the index-aware planner
+     * The result carries the plan that ran, for explain output
+     */
+    public synchronized StudentQueryPlan.Result query(StudentQuery query) {
+        Objects.requireNonNull(query, "Query cannot be null");
+        return queryIndex.plan(query, students.size()).execute(students);
+    }
+
+    /**
+     * The plan the query would run with, without running it
+     */
+    public synchronized StudentQueryPlan explain(StudentQuery query) {
+        Objects.requireNonNull(query, "Query cannot be null");
+        return queryIndex.plan(query, students.size());
+    }
+
     /**
      * Gets students by department
      */
     public List<Student> getStudentsByDepartment(String department) {
-        return searchStudents(s -> s.getDepartment().equalsIgnoreCase(department));
+        return query(new StudentQuery.Builder().department(department).build()).getStudents();
     }
 
     /**
      * Gets students by year
      */
     public List<Student> getStudentsByYear(int year) {
-        return searchStudents(s -> s.getYear() == year);
+        return query(new StudentQuery.Builder().year(year).build()).getStudents();
     }
 
     /**
      * Gets students with GPA above threshold
      */
     public List<Student> getStudentsWithGPAAbove(double threshold) {
-        return searchStudents(s -> s.calculateGPA() >= threshold);
+        return query(new StudentQuery.Builder().minGpa(threshold).build()).getStudents();
     }
 
     /**
      * Enrolls student in course with credit limit validation
      */
-    public void enrollStudentInCourse(String studentId, Course course) 
-                                    throws DuplicateEnrollmentException, MaxCreditLimitExceededException {
+    public synchronized void enrollStudentInCourse(String studentId, Course course) 
+                                    throws DuplicateEnrollmentException, MaxCreditLimitExceededException,
+                                           ScheduleConflictException {
 
         Student student = students.get(studentId);
         if (student == null) {
@@ -158,6 +617,13 @@ public class StudentService {
                 "Student " + studentId + " is already enrolled in course " + course.getCourseId());
         }
 
+        // Check for timetable clashes with the student's other courses
+        List<String> clashes = findTimeClashes(student, course);
+        if (!clashes.isEmpty()) {
+            throw new ScheduleConflictException(
+                "Course " + course.getCourseId() + " clashes with " + clashes + " for student " + studentId, clashes);
+        }
+
         // Calculate current credits
         int currentCredits = calculateCurrentCredits(student);
         int newTotalCredits = currentCredits + course.getCredits();
@@ -168,26 +634,141 @@ public class StudentService {
                 currentCredits, course.getCredits(), config.getMaxCreditsPerSemester());
         }
 
-        // Enroll student
-        student.enrollInCourse(course.getCourseId());
-        course.enrollStudent(studentId);
+        // Take the seat first so a full course leaves the ledger and the student untouched
+        if (!course.enrollStudent(studentId)) {
+            throw new IllegalStateException(course.isFull()
+                ? "Course " + course.getCourseId() + " is full"
+                : "Course " + course.getCourseId() + " already lists student " + studentId);
+        }
+        // Record in the ledger, then update the derived views
+        ledger.record(studentId, course.getCourseId(), course.getSemester());
+        // A retake replaces the earlier attempt's grade, in the course histogram too
+        course.recordGradeChange(student.getGrade(course.getCourseId()), null);
+        student.enrollInCourse(course.getCourseId(), course.getCredits(), course.getSemester());
+        bookSlots(timetableFor(student), course);
+        studentChanged(student);
+        if (events.hasListeners()) {
+            events.publish(DomainEvent.enrolled(studentId, course.getCourseId()));
+        }
+    }
+
+    /**
+     * Enrolls a batch of (student, course) pairs
+     * Validates every pair in one pass against the existing enrollments plus the pairs
+     * already accepted from this batch, then applies the accepted pairs together.
+     * Never throws for a rejected pair; the outcome of each pair is in the report
+     */
+    public BulkEnrollmentReport enrollAll(List<EnrollmentRequest> requests, Map<String, Course> courses) {
+        return enrollAll(requests, courses::get);
+    }
+
+    /**
+     * Enrolls a batch of pairs, resolving courses through the configured course lookup
+     */
+    public BulkEnrollmentReport enrollAll(List<EnrollmentRequest> requests) {
+        return enrollAll(requests, courseLookup);
+    }
+
+    private synchronized BulkEnrollmentReport enrollAll(List<EnrollmentRequest> requests,
+                                                        Function<String, Course> courses) {
+        List<BulkEnrollmentReport.Result> results = new ArrayList<>(requests.size());
+        List<EnrollmentRequest> accepted = new ArrayList<>();
+        List<Integer> acceptedAt = new ArrayList<>(); // Index of each accepted pair's result
+
+        // Pending state from pairs accepted earlier in this batch
+        Map<String, Integer> pendingCredits = new HashMap<>();
+        Map<String, Integer> pendingSeats = new HashMap<>();
+        Set<EnrollmentRequest> pendingPairs = new HashSet<>();
+        int maxCredits = config.getMaxCreditsPerSemester();
+
+        for (EnrollmentRequest request : requests) {
+            Student student = students.get(request.getStudentId());
+            Course course = courses.apply(request.getCourseId());
+
+            BulkEnrollmentReport.Status status;
+            String message = null;
+            List<String> clashes;
+
+            if (student == null) {
+                status = BulkEnrollmentReport.Status.STUDENT_NOT_FOUND;
+            } else if (course == null) {
+                status = BulkEnrollmentReport.Status.COURSE_NOT_FOUND;
+            } else if (student.isEnrolledIn(course.getCourseId()) || pendingPairs.contains(request)) {
+                status = BulkEnrollmentReport.Status.DUPLICATE;
+            } else {
+                int currentCredits = calculateCurrentCredits(student)
+                                   + pendingCredits.getOrDefault(student.getId(), 0);
+                int seatsTaken = course.getCurrentEnrollment() + pendingSeats.getOrDefault(course.getCourseId(), 0);
+
+                if (currentCredits + course.getCredits() > maxCredits) {
+                    status = BulkEnrollmentReport.Status.CREDIT_LIMIT_EXCEEDED;
+                    message = String.format("Current=%d, Attempted=%d, Max=%d",
+                                            currentCredits, course.getCredits(), maxCredits);
+                } else if (seatsTaken >= course.getMaxEnrollment()) {
+                    status = BulkEnrollmentReport.Status.COURSE_FULL;
+                } else if (!(clashes = findTimeClashes(student, course)).isEmpty()) {
+                    status = BulkEnrollmentReport.Status.TIME_CLASH;
+                    message = "Clashes with " + clashes;
+                } else {
+                    status = BulkEnrollmentReport.Status.ENROLLED;
+                    // Booked now so later pairs in the batch see it; every accepted pair is applied
+                    bookSlots(timetableFor(student), course);
+                    pendingPairs.add(request);
+                    pendingCredits.merge(student.getId(), course.getCredits(), Integer::sum);
+                    pendingSeats.merge(course.getCourseId(), 1, Integer::sum);
+                    accepted.add(request);
+                    acceptedAt.add(results.size());
+                }
+            }
+            results.add(new BulkEnrollmentReport.Result(request, status, message));
+        }
+
+        // Apply the validated batch
+        for (int i = 0; i < accepted.size(); i++) {
+            EnrollmentRequest request = accepted.get(i);
+            Course course = courses.apply(request.getCourseId());
+            Student student = students.get(request.getStudentId());
+            if (!course.enrollStudent(student.getId())) {
+                // The course filled up behind the validation; drop the slots booked for this pair
+                results.set(acceptedAt.get(i),
+                            new BulkEnrollmentReport.Result(request, BulkEnrollmentReport.Status.COURSE_FULL, null));
+                timetables.remove(student.getId());
+                continue;
+            }
+            ledger.record(student.getId(), course.getCourseId(), course.getSemester());
+            course.recordGradeChange(student.getGrade(course.getCourseId()), null);
+            student.enrollInCourse(course.getCourseId(), course.getCredits(), course.getSemester());
+            studentChanged(student);
+            if (events.hasListeners()) {
+                events.publish(DomainEvent.enrolled(student.getId(), course.getCourseId()));
+            }
+        }
+
+        return new BulkEnrollmentReport(results);
     }
 
     /**
      * Unenrolls student from course
      */
-    public void unenrollStudentFromCourse(String studentId, Course course) {
+    public synchronized void unenrollStudentFromCourse(String studentId, Course course) {
         Student student = students.get(studentId);
         if (student != null) {
+            ledger.drop(studentId, course.getCourseId());
+            course.recordGradeChange(student.getGrade(course.getCourseId()), null);
             student.unenrollFromCourse(course.getCourseId());
             course.unenrollStudent(studentId);
+            timetables.remove(studentId);
+            studentChanged(student);
+            if (events.hasListeners()) {
+                events.publish(DomainEvent.unenrolled(studentId, course.getCourseId()));
+            }
         }
     }
 
     /**
      * Assigns grade to student for a course
      */
-    public void assignGrade(String studentId, String courseId, Grade grade) {
+    public synchronized void assignGrade(String studentId, String courseId, Grade grade) {
         Student student = students.get(studentId);
         if (student == null) {
             throw new IllegalArgumentException("Student not found: " + studentId);
@@ -197,16 +778,196 @@ public class StudentService {
             throw new IllegalArgumentException("Student is not enrolled in course: " + courseId);
         }
 
+        Grade previous = student.getGrade(courseId);
+        ledger.setGrade(studentId, courseId, grade);
         student.setGrade(courseId, grade);
+
+        Course course = courseLookup.apply(courseId);
+        if (course != null) {
+            course.recordGradeChange(previous, grade);
+        }
+        studentChanged(student);
+        if (events.hasListeners()) {
+            events.publish(DomainEvent.gradeAssigned(studentId, courseId, previous, grade));
+        }
+    }
+
+    /**
+     * Imports grades from a stream of rows in batches of the given size
+     * Rows are read and checked for well-formed IDs and grades without the service lock,
+     * which is taken once per batch to check each row against the student's enrollment
+     * and apply the batch, grouped by student so every student is updated once. Rejected
+     * rows are counted in the report instead of aborting the import
+     */
+    public GradeImportReport importGrades(Stream<GradeRecord> rows, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        long start = System.currentTimeMillis();
+        GradeImportReport report = new GradeImportReport();
+        List<GradeRecord> records = new ArrayList<>(Math.min(batchSize, 4096));
+        List<Grade> grades = new ArrayList<>(Math.min(batchSize, 4096));
+
+        rows.forEach(record -> {
+            report.rowRead();
+            if (record.getStudentId().isEmpty() || record.getCourseId().isEmpty()) {
+                report.reject(record, GradeImportReport.Rejection.MALFORMED_ROW);
+                return;
+            }
+            Grade grade = parseGrade(record.getGrade());
+            if (grade == null) {
+                report.reject(record, GradeImportReport.Rejection.INVALID_GRADE);
+                return;
+            }
+            records.add(record);
+            grades.add(grade);
+            if (records.size() >= batchSize) {
+                applyGradeBatch(records, grades, report);
+            }
+        });
+        if (!records.isEmpty()) {
+            applyGradeBatch(records, grades, report);
+        }
+
+        report.finish(System.currentTimeMillis() - start);
+        return report;
+    }
+
+    /**
+     * IDs of the student's active courses whose meeting slots overlap the given course
+     * O(log n + k) per slot against the student's timetable index
+     */
+    private List<String> findTimeClashes(Student student, Course course) {
+        if (!course.hasMeetingSlots()) {
+            return Collections.emptyList();
+        }
+        IntervalTree<String> timetable = timetableFor(student);
+        Set<String> clashes = new LinkedHashSet<>();
+        for (MeetingSlot slot : course.getMeetingSlots()) {
+            long start = TimetableKeys.start(course.getSemester(), slot);
+            long end = TimetableKeys.end(course.getSemester(), slot);
+            timetable.findOverlaps(start, end).forEach(booked -> clashes.add(booked.getValue()));
+        }
+        clashes.remove(course.getCourseId());
+        return new ArrayList<>(clashes);
+    }
+
+    private IntervalTree<String> timetableFor(Student student) {
+        IntervalTree<String> timetable = timetables.get(student.getId());
+        if (timetable == null) {
+            timetable = new IntervalTree<>();
+            for (String courseId : student.getEnrolledCourses()) {
+                Course enrolled = courseLookup.apply(courseId);
+                if (enrolled != null) {
+                    bookSlots(timetable, enrolled);
+                }
+            }
+            timetables.put(student.getId(), timetable);
+        }
+        return timetable;
+    }
+
+    private static void bookSlots(IntervalTree<String> timetable, Course course) {
+        for (MeetingSlot slot : course.getMeetingSlots()) {
+            timetable.add(TimetableKeys.start(course.getSemester(), slot),
+                          TimetableKeys.end(course.getSemester(), slot), course.getCourseId());
+        }
+    }
+
+    // Checks a batch of well-formed rows against current enrollments and applies the valid ones
+    private synchronized void applyGradeBatch(List<GradeRecord> records, List<Grade> grades,
+                                              GradeImportReport report) {
+        Map<Student, Map<String, Grade>> batch = new LinkedHashMap<>();
+        int accepted = 0;
+        for (int i = 0; i < records.size(); i++) {
+            GradeRecord record = records.get(i);
+            Student student = students.get(record.getStudentId());
+            if (student == null) {
+                report.reject(record, GradeImportReport.Rejection.STUDENT_NOT_FOUND);
+            } else if (!student.isEnrolledIn(record.getCourseId())) {
+                report.reject(record, GradeImportReport.Rejection.NOT_ENROLLED);
+            } else {
+                batch.computeIfAbsent(student, k -> new HashMap<>()).put(record.getCourseId(), grades.get(i));
+                accepted++;
+            }
+        }
+        records.clear();
+        grades.clear();
+
+        batch.forEach((student, studentGrades) -> {
+            Map<String, Grade> previousGrades = new HashMap<>();
+            studentGrades.forEach((courseId, grade) -> {
+                ledger.setGrade(student.getId(), courseId, grade);
+                Grade previous = student.getGrade(courseId);
+                previousGrades.put(courseId, previous);
+                Course course = courseLookup.apply(courseId);
+                if (course != null) {
+                    course.recordGradeChange(previous, grade);
+                }
+            });
+            student.applyGrades(studentGrades);
+            studentChanged(student);
+            // Published once the student reflects the grades, as listeners read it back
+            if (events.hasListeners()) {
+                studentGrades.forEach((courseId, grade) -> events.publish(
+                    DomainEvent.gradeAssigned(student.getId(), courseId, previousGrades.get(courseId), grade)));
+            }
+        });
+        if (accepted > 0) {
+            report.batchApplied(accepted, batch.size());
+        }
+    }
+
+    private static Grade parseGrade(String text) {
+        if (text == null || text.length() != 1) {
+            return null;
+        }
+        switch (Character.toUpperCase(text.charAt(0))) {
+            case 'S': return Grade.S;
+            case 'A': return Grade.A;
+            case 'B': return Grade.B;
+            case 'C': return Grade.C;
+            case 'D': return Grade.D;
+            case 'F': return Grade.F;
+            default: return null;
+        }
+    }
+
+    /**
+     * Gets the full enrollment history of a student, including archived semesters
+     */
+    public synchronized List<Enrollment> getEnrollmentHistory(String studentId) {
+        return ledger.getHistory(studentId);
+    }
+
+    /**
+     * Gets all enrollments recorded for a semester
+     */
+    public synchronized List<Enrollment> getEnrollmentsForSemester(String semester) {
+        return ledger.getBySemester(semester);
+    }
+
+    /**
+     * Gets all enrollments recorded for a course
+     */
+    public synchronized List<Enrollment> getEnrollmentsForCourse(String courseId) {
+        return ledger.getByCourse(courseId);
     }
 
     /**
      * Generates transcript for student
      */
     public String generateTranscript(String studentId) {
-        Student student = students.get(studentId);
-        if (student == null) {
-            throw new IllegalArgumentException("Student not found: " + studentId);
+        // One record and its rank, taken together; the text is built after releasing the lock
+        StudentRecord student;
+        Optional<RankService.Rank> classRank;
+        synchronized (this) {
+            Student live = students.get(studentId);
+            if (live == null) {
+                throw new IllegalArgumentException("Student not found: " + studentId);
+            }
+            student = new StudentRecord(live);
+            classRank = rankService.getRank(studentId);
         }
 
         StringBuilder transcript = new StringBuilder();
@@ -218,27 +979,68 @@ public class StudentService {
         transcript.append("\nCourses and Grades:\n");
         transcript.append("-----------------\n");
 
-        Map<String, Grade> grades = student.getAllGrades();
+        Map<String, Grade> grades = student.getGrades();
         if (grades.isEmpty()) {
             transcript.append("No grades recorded.\n");
         } else {
             grades.forEach((courseId, grade) -> 
-                transcript.append(String.format("Course: %s - Grade: %s\n", courseId, grade)));
+                transcript.append(String.format("Course: %s (%d credits) - Grade: %s\n",
+                                                courseId, student.getCourseCredits(courseId), grade)));
         }
 
-        transcript.append(String.format("\nOverall GPA: %.2f\n", student.calculateGPA()));
-        transcript.append(String.format("Passed Courses: %d\n", student.getPassedCourses().size()));
+        Map<String, Double> semesterGPAs = student.getSemesterGPAs();
+        if (!semesterGPAs.isEmpty()) {
+            transcript.append("\nSemester GPA (SGPA):\n");
+            semesterGPAs.forEach((semester, sgpa) ->
+                transcript.append(String.format("  %s: %.2f\n", semester, sgpa)));
+        }
+
+        transcript.append(String.format("\nOverall GPA (CGPA): %.2f\n", student.getGpa()));
+        transcript.append(String.format("Passed Courses: %d\n", student.getPassedCourseCount()));
+        classRank.ifPresent(rank ->
+            transcript.append(String.format("Class Rank: %s in %s, Year %d\n",
+                                            rank, student.getDepartment(), student.getYear())));
 
         return transcript.toString();
     }
 
+    /**
+     * Archives the completed enrollments of a finished semester
+     * They leave the active partition (and the students' current course load and the
+     * course rosters, keeping their grades) and are frozen into a read-only segment,
+     * written under the configured archive directory when persist is true
+     */
+    public synchronized int archiveSemester(String semester, boolean persist) throws IOException {
+        List<Enrollment> archived = ledger.archiveSemester(
+            semester, persist ? Paths.get(config.getArchiveDirectory()) : null);
+
+        Set<Student> touched = new LinkedHashSet<>();
+        for (Enrollment enrollment : archived) {
+            Student student = students.get(enrollment.getStudentId());
+            if (student != null && !enrollment.isDropped()) {
+                student.completeCourse(enrollment.getCourseId());
+                // Off the current roster too, so the course can be retaken in a later semester
+                Course course = courseLookup.apply(enrollment.getCourseId());
+                if (course != null) {
+                    course.unenrollStudent(student.getId());
+                }
+                timetables.remove(student.getId());
+                touched.add(student);
+            }
+        }
+        // Once per student, however many of their enrollments were archived
+        touched.forEach(this::studentChanged);
+        if (!archived.isEmpty() && events.hasListeners()) {
+            events.publish(DomainEvent.semesterArchived(semester));
+        }
+        return archived.size();
+    }
+
     /**
      * Calculates current semester credits for student
      */
     private int calculateCurrentCredits(Student student) {
-        // This is a simplified version - in real implementation, 
-        // you'd need course information to get credit values
-        return student.getEnrolledCourses().size() * 3; // Assuming 3 credits per course
+        return student.getEnrolledCredits();
     }
 
     /**
@@ -247,24 +1049,29 @@ public class StudentService {
     public Map<String, Object> getEnrollmentStatistics() {
         Map<String, Object> stats = new HashMap<>();
 
-        List<Student> activeStudents = getActiveStudents();
-        stats.put("totalStudents", students.size());
+        // All figures come from one snapshot, so they agree with each other
+        StudentSnapshot snapshot = snapshot();
+        List<StudentRecord> activeStudents = snapshot.getStudents().stream()
+                .filter(StudentRecord::isActive)
+                .collect(Collectors.toList());
+        stats.put("totalStudents", snapshot.size());
         stats.put("activeStudents", activeStudents.size());
-        stats.put("inactiveStudents", students.size() - activeStudents.size());
+        stats.put("inactiveStudents", snapshot.size() - activeStudents.size());
+        stats.put("snapshotVersion", snapshot.getVersion());
 
         // Department-wise distribution
         Map<String, Long> departmentDistribution = activeStudents.stream()
-                .collect(Collectors.groupingBy(Student::getDepartment, Collectors.counting()));
+                .collect(Collectors.groupingBy(StudentRecord::getDepartment, Collectors.counting()));
         stats.put("departmentDistribution", departmentDistribution);
 
         // Year-wise distribution
         Map<Integer, Long> yearDistribution = activeStudents.stream()
-                .collect(Collectors.groupingBy(Student::getYear, Collectors.counting()));
+                .collect(Collectors.groupingBy(StudentRecord::getYear, Collectors.counting()));
         stats.put("yearDistribution", yearDistribution);
 
         // Average GPA
         double averageGPA = activeStudents.stream()
-                .mapToDouble(Student::calculateGPA)
+                .mapToDouble(StudentRecord::getGpa)
                 .average()
                 .orElse(0.0);
         stats.put("averageGPA", averageGPA);
@@ -275,28 +1082,50 @@ public class StudentService {
     /**
      * Deactivates student account
      */
-    public void deactivateStudent(String studentId) {
+    public synchronized void deactivateStudent(String studentId) {
         Student student = students.get(studentId);
         if (student != null) {
             student.setActive(false);
+            studentChanged(student);
+            if (events.hasListeners()) {
+                events.publish(DomainEvent.studentEvent(DomainEvent.Type.STUDENT_DEACTIVATED, studentId));
+            }
         }
     }
 
     /**
      * Activates student account
      */
-    public void activateStudent(String studentId) {
+    public synchronized void activateStudent(String studentId) {
         Student student = students.get(studentId);
         if (student != null) {
             student.setActive(true);
+            studentChanged(student);
+            if (events.hasListeners()) {
+                events.publish(DomainEvent.studentEvent(DomainEvent.Type.STUDENT_ACTIVATED, studentId));
+            }
         }
     }
 
     /**
      * Removes student (for testing purposes)
      */
-    public void removeStudent(String studentId) {
-        students.remove(studentId);
+    public synchronized void removeStudent(String studentId) {
+        Student removed = students.remove(studentId);
+        if (removed == null) {
+            return;
+        }
+        removed.removeChangeListener(nameListener);
+        nameIndex.remove(studentId);
+        ledger.removeStudent(studentId);
+        timetables.remove(studentId);
+        rankService.remove(studentId);
+        queryIndex.remove(studentId);
+        sortedViews.values().forEach(view -> view.remove(studentId));
+        markChanged(studentId);
+        if (events.hasListeners()) {
+            events.publish(DomainEvent.studentEvent(DomainEvent.Type.STUDENT_REMOVED, studentId));
+        }
     }
 
     /**
@@ -309,8 +1138,63 @@ public class StudentService {
     /**
      * Loads students from list (for import functionality)
      */
-    public void loadStudents(List<Student> studentList) {
+    public synchronized void loadStudents(List<Student> studentList) {
+        students.values().forEach(student -> student.removeChangeListener(nameListener));
         students.clear();
-        studentList.forEach(student -> students.put(student.getId(), student));
+        ledger.clear();
+        timetables.clear();
+        nameIndex.clear();
+        studentList.forEach(student -> {
+            students.put(student.getId(), student);
+            student.addChangeListener(nameListener);
+        });
+        nameIndex.addAll(students.values());
+        rankService.rebuild(students.values());
+        queryIndex.rebuild(students.values());
+        sortedViews.values().forEach(view -> view.rebuild(students.values()));
+        snapshotRebuildRequired = true;
+        dirtyStudents.clear();
+        loadGeneration++;
+        version++;
+        if (events.hasListeners()) {
+            events.publish(DomainEvent.studentsLoaded(students.size()));
+        }
+    }
+
+    /**
+     * Gets cached per-department summaries of active students
+     */
+    public Map<String, DepartmentSummaryCache.DepartmentSummary> getDepartmentSummaries() {
+        return departmentSummaries.getSummaries();
+    }
+
+    /**
+     * Classifies every student's academic standing in parallel, over the current snapshot
+     */
+    public StandingEvaluationJob.Results evaluateStandings(int parallelism) {
+        return new StandingEvaluationJob(config).run(snapshot().getStudents(), parallelism);
+    }
+
+    /**
+     * Gets a student's class rank within their department and year
+     */
+    public Optional<RankService.Rank> getClassRank(String studentId) {
+        return rankService.getRank(studentId);
+    }
+
+    // Keeps derived read models current after a student's GPA, department, year or status changes
+    private void studentChanged(Student student) {
+        rankService.update(student);
+        queryIndex.update(student);
+        sortedViews.values().forEach(view -> view.add(student));
+        markChanged(student.getId());
+    }
+
+    // Bumps the version and, while a snapshot can be derived incrementally, remembers the student
+    private void markChanged(String studentId) {
+        version++;
+        if (!snapshotRebuildRequired || fullSnapshotBuilds > 0) {
+            dirtyStudents.put(studentId, version);
+        }
     }
 }
\ No newline at end of file
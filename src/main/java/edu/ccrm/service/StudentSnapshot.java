@@ -0,0 +1,38 @@
+package edu.ccrm.service;
+
+import edu.ccrm.util.PersistentHashMap;
+import java.util.*;
+
+/**
+ * Consistent, immutable view of the student population at one version
+ * Readers pin a snapshot and can run long reports against it while writers continue;
+ * records of students that did not change are shared between successive snapshots
+ */
+public final class StudentSnapshot {
+    private final long version;
+    private final PersistentHashMap<String, StudentRecord> records;
+
+    StudentSnapshot(long version, PersistentHashMap<String, StudentRecord> records) {
+        this.version = version;
+        this.records = records;
+    }
+
+    public long getVersion() { return version; }
+
+    public Optional<StudentRecord> getStudent(String id) {
+        return Optional.ofNullable(records.get(id));
+    }
+
+    public Collection<StudentRecord> getStudents() {
+        return records.values();
+    }
+
+    public int size() {
+        return records.size();
+    }
+
+    // Used by the service to derive the next snapshot, sharing the unchanged part of the trie
+    PersistentHashMap<String, StudentRecord> records() {
+        return records;
+    }
+}
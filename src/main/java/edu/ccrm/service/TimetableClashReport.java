@@ -0,0 +1,147 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.MeetingSlot;
+import java.util.*;
+
+/**
+ * Room double-bookings and student timetable clashes across a set of courses
+ * Built from the courses' current slots and rosters with one sort-and-sweep per
+ * room and per student, O(n log n + k) overall, so it also catches clashes that
+ * entered through imports or direct Course changes
+ */
+public final class TimetableClashReport {
+
+    /**
+     * What a clash is about
+     */
+    public enum Kind {
+        ROOM,
+        STUDENT
+    }
+
+    /**
+     * Two courses overlapping for one room or one student
+     */
+    public static final class Clash {
+        private final Kind kind;
+        private final String subject; // Room or student ID
+        private final String firstCourseId;
+        private final MeetingSlot firstSlot;
+        private final String secondCourseId;
+        private final MeetingSlot secondSlot;
+
+        Clash(Kind kind, String subject, String firstCourseId, MeetingSlot firstSlot,
+              String secondCourseId, MeetingSlot secondSlot) {
+            this.kind = kind;
+            this.subject = subject;
+            this.firstCourseId = firstCourseId;
+            this.firstSlot = firstSlot;
+            this.secondCourseId = secondCourseId;
+            this.secondSlot = secondSlot;
+        }
+
+        public Kind getKind() { return kind; }
+
+        public String getSubject() { return subject; }
+
+        public String getFirstCourseId() { return firstCourseId; }
+
+        public MeetingSlot getFirstSlot() { return firstSlot; }
+
+        public String getSecondCourseId() { return secondCourseId; }
+
+        public MeetingSlot getSecondSlot() { return secondSlot; }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s: %s (%s) overlaps %s (%s)",
+                               kind, subject, firstCourseId, firstSlot, secondCourseId, secondSlot);
+        }
+    }
+
+    private final List<Clash> roomClashes;
+    private final List<Clash> studentClashes;
+
+    private TimetableClashReport(List<Clash> roomClashes, List<Clash> studentClashes) {
+        this.roomClashes = roomClashes;
+        this.studentClashes = studentClashes;
+    }
+
+    /**
+     * Finds every clash among the given courses (typically all courses of one term)
+     */
+    public static TimetableClashReport generate(Collection<Course> courses) {
+        Map<String, List<Booking>> byRoom = new TreeMap<>();
+        Map<String, List<Booking>> byStudent = new TreeMap<>();
+
+        for (Course course : courses) {
+            List<MeetingSlot> slots = course.getMeetingSlots();
+            for (MeetingSlot slot : slots) {
+                Booking booking = new Booking(course, slot);
+                byRoom.computeIfAbsent(slot.getRoom(), k -> new ArrayList<>()).add(booking);
+                for (String studentId : course.enrolledStudentsView()) {
+                    byStudent.computeIfAbsent(studentId, k -> new ArrayList<>()).add(booking);
+                }
+            }
+        }
+
+        List<Clash> roomClashes = new ArrayList<>();
+        byRoom.forEach((room, bookings) -> sweep(Kind.ROOM, room, bookings, roomClashes));
+        List<Clash> studentClashes = new ArrayList<>();
+        byStudent.forEach((studentId, bookings) -> sweep(Kind.STUDENT, studentId, bookings, studentClashes));
+        return new TimetableClashReport(roomClashes, studentClashes);
+    }
+
+    // Sweeps bookings in start order, reporting each one against those still running
+    private static void sweep(Kind kind, String subject, List<Booking> bookings, List<Clash> out) {
+        if (bookings.size() < 2) {
+            return;
+        }
+        bookings.sort(Comparator.comparingLong(b -> b.start));
+        List<Booking> running = new ArrayList<>();
+        for (Booking booking : bookings) {
+            running.removeIf(active -> active.end <= booking.start);
+            for (Booking active : running) {
+                if (active.course != booking.course) {
+                    out.add(new Clash(kind, subject, active.course.getCourseId(), active.slot,
+                                      booking.course.getCourseId(), booking.slot));
+                }
+            }
+            running.add(booking);
+        }
+    }
+
+    public List<Clash> getRoomClashes() {
+        return Collections.unmodifiableList(roomClashes);
+    }
+
+    public List<Clash> getStudentClashes() {
+        return Collections.unmodifiableList(studentClashes);
+    }
+
+    public boolean hasClashes() {
+        return !roomClashes.isEmpty() || !studentClashes.isEmpty();
+    }
+
+    // A course slot placed on the shared semester timeline
+    private static final class Booking {
+        final Course course;
+        final MeetingSlot slot;
+        final long start;
+        final long end;
+
+        Booking(Course course, MeetingSlot slot) {
+            this.course = course;
+            this.slot = slot;
+            this.start = TimetableKeys.start(course.getSemester(), slot);
+            this.end = TimetableKeys.end(course.getSemester(), slot);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TimetableClashReport{roomClashes=%d, studentClashes=%d}",
+                           roomClashes.size(), studentClashes.size());
+    }
+}
@@ -0,0 +1,26 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.MeetingSlot;
+import edu.ccrm.util.StringDictionary;
+
+/**
+ * Maps meeting slots onto one timeline for the interval indexes
+ * Each semester gets its own week of minutes, so slots only clash within a term
+ */
+final class TimetableKeys {
+
+    private TimetableKeys() {
+    }
+
+    static long start(String semester, MeetingSlot slot) {
+        return weekOffset(semester) + slot.getStartMinuteOfWeek();
+    }
+
+    static long end(String semester, MeetingSlot slot) {
+        return weekOffset(semester) + slot.getEndMinuteOfWeek();
+    }
+
+    private static long weekOffset(String semester) {
+        return (long) StringDictionary.SEMESTERS.encode(semester) * MeetingSlot.MINUTES_PER_WEEK;
+    }
+}
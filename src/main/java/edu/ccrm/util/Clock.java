@@ -0,0 +1,14 @@
+package edu.ccrm.util;
+
+/**
+ * Time source abstraction used for domain timestamps
+ * Returns epoch milliseconds so hot paths never allocate a date object
+ */
+@FunctionalInterface
+public interface Clock {
+
+    /**
+     * Current time in milliseconds since the epoch
+     */
+    long millis();
+}
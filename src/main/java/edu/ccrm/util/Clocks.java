@@ -0,0 +1,137 @@
+package edu.ccrm.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Factory and holder for the application clock
+ * Domain objects read the current clock on every mutation. The default reads the
+ * system time directly: System.currentTimeMillis() is already a cheap read on every
+ * supported JVM, and it needs no thread waking up while nothing reads the clock
+ */
+public final class Clocks {
+
+    private static volatile Clock current = system();
+
+    private Clocks() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Returns the clock used for domain timestamps
+     */
+    public static Clock current() {
+        return current;
+    }
+
+    /**
+     * Replaces the clock used for domain timestamps (e.g. with a ManualClock in tests)
+     * A replaced CachedClock is closed, stopping its ticker thread
+     */
+    public static synchronized void setCurrent(Clock clock) {
+        Objects.requireNonNull(clock, "Clock cannot be null");
+        Clock previous = current;
+        current = clock;
+        if (previous != clock && previous instanceof CachedClock) {
+            ((CachedClock) previous).close();
+        }
+    }
+
+    /**
+     * Reads the current clock
+     */
+    public static long now() {
+        return current.millis();
+    }
+
+    /**
+     * Clock that reads the system time on every call
+     */
+    public static Clock system() {
+        return System::currentTimeMillis;
+    }
+
+    /**
+     * Clock that refreshes a cached value every tickMillis milliseconds; it owns a
+     * ticker thread until closed, so it only pays off for very hot readers
+     */
+    public static Clock cached(long tickMillis) {
+        return new CachedClock(tickMillis);
+    }
+
+    /**
+     * Converts an epoch millisecond value to a LocalDateTime in the system zone
+     */
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Cached clock backed by a daemon ticker thread
+     * Readers pay a single volatile read instead of a system clock call; close()
+     * stops the ticker, after which the clock reads the system time directly
+     */
+    public static final class CachedClock implements Clock, AutoCloseable {
+        private volatile long now;
+        private volatile boolean closed;
+        private final Thread ticker;
+
+        CachedClock(long tickMillis) {
+            if (tickMillis <= 0) {
+                throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+            }
+            this.now = System.currentTimeMillis();
+
+            this.ticker = new Thread(() -> {
+                while (!closed) {
+                    try {
+                        Thread.sleep(tickMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    now = System.currentTimeMillis();
+                }
+            }, "ccrm-clock-ticker");
+            ticker.setDaemon(true);
+            ticker.start();
+        }
+
+        @Override
+        public long millis() {
+            return closed ? System.currentTimeMillis() : now;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            ticker.interrupt();
+        }
+    }
+
+    /**
+     * Deterministic clock that only moves when told to
+     */
+    public static final class ManualClock implements Clock {
+        private final AtomicLong now;
+
+        public ManualClock(long startMillis) {
+            this.now = new AtomicLong(startMillis);
+        }
+
+        @Override
+        public long millis() {
+            return now.get();
+        }
+
+        public void set(long epochMillis) {
+            now.set(epochMillis);
+        }
+
+        public long advance(long deltaMillis) {
+            return now.addAndGet(deltaMillis);
+        }
+    }
+}
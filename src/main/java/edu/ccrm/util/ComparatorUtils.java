@@ -2,6 +2,8 @@ package edu.ccrm.util;
 
 import edu.ccrm.domain.*;
 import java.util.Comparator;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Utility class providing various comparators for domain objects
@@ -28,6 +30,14 @@ public final class ComparatorUtils {
     public static final Comparator<Student> BY_GPA = 
         Comparator.comparingDouble(Student::calculateGPA).reversed(); // Higher GPA first
 
+    public static final Comparator<Student> BY_STUDENT_ID = Comparator.comparing(Student::getId);
+
+    // Key-extracted GPA ranking: map students through GPA_KEY first so each GPA is
+    // computed once, then order the pairs with BY_GPA_KEY (higher first, ties by ID)
+    public static final Function<Student, Keyed<Student>> GPA_KEY = withKey(Student::calculateGPA);
+
+    public static final Comparator<Keyed<Student>> BY_GPA_KEY = byKey(true, BY_STUDENT_ID);
+
     // Course comparators using method references and lambdas
     public static final Comparator<Course> BY_COURSE_CODE = Comparator.comparing(Course::getCourseCode);
 
@@ -53,7 +63,7 @@ public final class ComparatorUtils {
 
     // Enrollment comparators
     public static final Comparator<Enrollment> BY_ENROLLMENT_DATE = 
-        Comparator.comparing(Enrollment::getEnrollmentDate);
+        Comparator.comparingLong(Enrollment::getEnrollmentDateMillis);
 
     public static final Comparator<Enrollment> BY_SEMESTER = 
         Comparator.comparing(Enrollment::getSemester);
@@ -78,4 +88,38 @@ public final class ComparatorUtils {
     public static Comparator<Course> byCreditsThenEnrollment() {
         return BY_CREDITS.thenComparing(BY_ENROLLMENT);
     }
-}
\ No newline at end of file
+
+    /**
+     * A value paired with a sort key computed once up front
+     */
+    public static final class Keyed<T> {
+        private final T value;
+        private final double key;
+
+        Keyed(T value, double key) {
+            this.value = value;
+            this.key = key;
+        }
+
+        public T getValue() { return value; }
+
+        public double getKey() { return key; }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%.2f)", value, key);
+        }
+    }
+
+    // Key extraction: decorate each element with its key so sorting or top-k selection
+    // reads a field per comparison instead of recomputing the key
+    public static <T> Function<T, Keyed<T>> withKey(ToDoubleFunction<? super T> key) {
+        return value -> new Keyed<>(value, key.applyAsDouble(value));
+    }
+
+    public static <T> Comparator<Keyed<T>> byKey(boolean descending, Comparator<? super T> tieBreak) {
+        Comparator<Keyed<T>> byKey = (k1, k2) -> descending ? Double.compare(k2.key, k1.key)
+                                                             : Double.compare(k1.key, k2.key);
+        return byKey.thenComparing(Keyed::getValue, tieBreak);
+    }
+}
@@ -0,0 +1,218 @@
+package edu.ccrm.util;
+
+import java.util.*;
+
+/**
+ * Interval tree over half-open [start, end) ranges of long coordinates
+ * A treap ordered by start and augmented with the maximum end of each subtree,
+ * so insertion, removal and "is anything overlapping?" are O(log n) expected and
+ * listing all k overlaps is O(log n + k). Not thread-safe
+ */
+public class IntervalTree<T> {
+
+    private final Random priorities = new Random(0x5DEECE66DL);
+    private Node<T> root;
+    private int size;
+
+    /**
+     * Adds an interval carrying a value; start must be before end
+     */
+    public void add(long start, long end, T value) {
+        if (start >= end) {
+            throw new IllegalArgumentException("Empty interval: [" + start + ", " + end + ")");
+        }
+        root = insert(root, new Node<>(new Interval<>(start, end, value), priorities.nextInt()));
+        size++;
+    }
+
+    /**
+     * Removes one interval with exactly these bounds and an equal value
+     */
+    public boolean remove(long start, long end, T value) {
+        int before = size;
+        root = delete(root, start, end, value);
+        return size < before;
+    }
+
+    /**
+     * Returns some interval overlapping [start, end), or empty if none does
+     */
+    public Optional<Interval<T>> findAnyOverlap(long start, long end) {
+        Node<T> node = root;
+        while (node != null) {
+            if (node.interval.overlaps(start, end)) {
+                return Optional.of(node.interval);
+            }
+            // If the left subtree reaches past start it must hold the overlap, if any
+            node = node.left != null && node.left.maxEnd > start ? node.left : node.right;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns every interval overlapping [start, end), ordered by start
+     */
+    public List<Interval<T>> findOverlaps(long start, long end) {
+        List<Interval<T>> result = new ArrayList<>();
+        collect(root, start, end, result);
+        return result;
+    }
+
+    /**
+     * Returns every interval, ordered by start
+     */
+    public List<Interval<T>> toList() {
+        return findOverlaps(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    private void collect(Node<T> node, long start, long end, List<Interval<T>> result) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collect(node.left, start, end, result);
+        if (node.interval.start >= end) {
+            return; // Everything to the right starts even later
+        }
+        if (node.interval.overlaps(start, end)) {
+            result.add(node.interval);
+        }
+        collect(node.right, start, end, result);
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.interval.start < node.interval.start) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node<T> delete(Node<T> node, long start, long end, T value) {
+        if (node == null) {
+            return null;
+        }
+        Interval<T> interval = node.interval;
+        if (interval.start == start && interval.end == end && Objects.equals(interval.value, value)) {
+            size--;
+            return merge(node.left, node.right);
+        }
+        // Equal starts may sit on either side after rotations
+        if (start <= interval.start) {
+            int before = size;
+            node.left = delete(node.left, start, end, value);
+            if (size == before && start == interval.start) {
+                node.right = delete(node.right, start, end, value);
+            }
+        } else {
+            node.right = delete(node.right, start, end, value);
+        }
+        node.update();
+        return node;
+    }
+
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    /**
+     * Immutable [start, end) interval with its value
+     */
+    public static final class Interval<T> {
+        private final long start;
+        private final long end;
+        private final T value;
+
+        Interval(long start, long end, T value) {
+            this.start = start;
+            this.end = end;
+            this.value = value;
+        }
+
+        public long getStart() { return start; }
+
+        public long getEnd() { return end; }
+
+        public T getValue() { return value; }
+
+        public boolean overlaps(long otherStart, long otherEnd) {
+            return start < otherEnd && otherStart < end;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%d, %d) %s", start, end, value);
+        }
+    }
+
+    private static final class Node<T> {
+        final Interval<T> interval;
+        final int priority;
+        Node<T> left;
+        Node<T> right;
+        long maxEnd;
+
+        Node(Interval<T> interval, int priority) {
+            this.interval = interval;
+            this.priority = priority;
+            this.maxEnd = interval.end;
+        }
+
+        void update() {
+            long max = interval.end;
+            if (left != null && left.maxEnd > max) max = left.maxEnd;
+            if (right != null && right.maxEnd > max) max = right.maxEnd;
+            maxEnd = max;
+        }
+    }
+}
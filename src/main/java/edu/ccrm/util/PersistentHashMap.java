@@ -0,0 +1,390 @@
+package edu.ccrm.util;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable hash map whose updates share structure with the map they came from
+ * Entries live in a 32-way trie indexed by five hash bits per level (a hash array
+ * mapped trie); each node stores only its occupied slots, found through a bitmap.
+ * plus and minus copy the O(log32 n) nodes on the path to the key and reuse every
+ * other node, so keeping many versions costs memory per change rather than per
+ * version. Keys whose hashes are fully equal share a collision node. Null keys and
+ * values are not allowed
+ */
+public final class PersistentHashMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int MAX_DEPTH = 8; // Seven trie levels cover 32 hash bits, plus a collision node
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    public static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        PersistentHashMap<K, V> result = empty();
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            result = result.plus(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        return (V) root.find(key, hash(key), 0);
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * This map with the key mapped to the value; this map itself if it already was
+     */
+    public PersistentHashMap<K, V> plus(K key, V value) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        Objects.requireNonNull(value, "Value cannot be null");
+        boolean[] added = new boolean[1];
+        Node updated = root.put(new Leaf(hash(key), key, value), 0, added);
+        return updated == root ? this : new PersistentHashMap<>(updated, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * This map without the key; this map itself if the key is absent
+     */
+    public PersistentHashMap<K, V> minus(Object key) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        Node updated = root.remove(key, hash(key), 0);
+        if (updated == root) {
+            return this;
+        }
+        return updated == null ? empty() : new PersistentHashMap<>(updated, size - 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Iterator<Leaf> leaves = new LeafIterator(root);
+        while (leaves.hasNext()) {
+            Leaf leaf = leaves.next();
+            action.accept((K) leaf.key, (V) leaf.value);
+        }
+    }
+
+    /**
+     * Read-only view of the values, in no particular order
+     */
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                Iterator<Leaf> leaves = new LeafIterator(root);
+                return new Iterator<V>() {
+                    @Override
+                    public boolean hasNext() {
+                        return leaves.hasNext();
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public V next() {
+                        return (V) leaves.next().value;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static final class Leaf {
+        final int hash;
+        final Object key;
+        final Object value;
+
+        Leaf(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        boolean matches(Object key, int hash) {
+            return this.hash == hash && this.key.equals(key);
+        }
+    }
+
+    // Slots hold Leafs and child Nodes; nodes are never modified once built
+    private abstract static class Node {
+        final Object[] slots;
+
+        Node(Object[] slots) {
+            this.slots = slots;
+        }
+
+        abstract Object find(Object key, int hash, int shift);
+
+        abstract Node put(Leaf leaf, int shift, boolean[] added);
+
+        // Null once the node is empty
+        abstract Node remove(Object key, int hash, int shift);
+
+        // The only entry of a node holding a single leaf, which the parent can inline
+        Leaf soleLeaf() {
+            return slots.length == 1 && slots[0] instanceof Leaf ? (Leaf) slots[0] : null;
+        }
+    }
+
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        final int bitmap;
+
+        BitmapNode(int bitmap, Object[] slots) {
+            super(slots);
+            this.bitmap = bitmap;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = slots[index(bit)];
+            if (slot instanceof Leaf) {
+                Leaf leaf = (Leaf) slot;
+                return leaf.matches(key, hash) ? leaf.value : null;
+            }
+            return ((Node) slot).find(key, hash, shift + BITS);
+        }
+
+        @Override
+        Node put(Leaf leaf, int shift, boolean[] added) {
+            int bit = bit(leaf.hash, shift);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                Object[] copy = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, copy, 0, index);
+                copy[index] = leaf;
+                System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+                return new BitmapNode(bitmap | bit, copy);
+            }
+            Object slot = slots[index];
+            Object replacement;
+            if (slot instanceof Leaf) {
+                Leaf existing = (Leaf) slot;
+                if (existing.matches(leaf.key, leaf.hash)) {
+                    if (existing.value == leaf.value) {
+                        return this;
+                    }
+                    replacement = leaf;
+                } else {
+                    added[0] = true;
+                    replacement = pair(existing, leaf, shift + BITS);
+                }
+            } else {
+                Node child = (Node) slot;
+                replacement = child.put(leaf, shift + BITS, added);
+                if (replacement == child) {
+                    return this;
+                }
+            }
+            Object[] copy = slots.clone();
+            copy[index] = replacement;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = index(bit);
+            Object slot = slots[index];
+            if (slot instanceof Leaf) {
+                return ((Leaf) slot).matches(key, hash) ? without(bit, index) : this;
+            }
+            Node child = (Node) slot;
+            Node updated = child.remove(key, hash, shift + BITS);
+            if (updated == child) {
+                return this;
+            }
+            if (updated == null) {
+                return without(bit, index);
+            }
+            Leaf sole = updated.soleLeaf();
+            Object[] copy = slots.clone();
+            copy[index] = sole != null ? sole : updated;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        private Node without(int bit, int index) {
+            if (slots.length == 1) {
+                return null;
+            }
+            Object[] copy = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, copy, 0, index);
+            System.arraycopy(slots, index + 1, copy, index, copy.length - index);
+            return new BitmapNode(bitmap & ~bit, copy);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        // Smallest subtree holding two leaves with distinct keys
+        private static Node pair(Leaf first, Leaf second, int shift) {
+            if (first.hash == second.hash) {
+                return new CollisionNode(first.hash, new Object[] {first, second});
+            }
+            int firstBit = bit(first.hash, shift);
+            int secondBit = bit(second.hash, shift);
+            if (firstBit == secondBit) {
+                return new BitmapNode(firstBit, new Object[] {pair(first, second, shift + BITS)});
+            }
+            Object[] slots = Integer.compareUnsigned(firstBit, secondBit) < 0
+                    ? new Object[] {first, second} : new Object[] {second, first};
+            return new BitmapNode(firstBit | secondBit, slots);
+        }
+    }
+
+    // Leaves whose keys differ but whose hashes are equal
+    private static final class CollisionNode extends Node {
+        final int hash;
+
+        CollisionNode(int hash, Object[] leaves) {
+            super(leaves);
+            this.hash = hash;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int index = indexOf(key, hash);
+            return index < 0 ? null : ((Leaf) slots[index]).value;
+        }
+
+        @Override
+        Node put(Leaf leaf, int shift, boolean[] added) {
+            if (leaf.hash != hash) {
+                // Nest this node one level down, beside the new leaf
+                return new BitmapNode(bit(hash, shift), new Object[] {this}).put(leaf, shift, added);
+            }
+            int index = indexOf(leaf.key, leaf.hash);
+            if (index >= 0) {
+                if (((Leaf) slots[index]).value == leaf.value) {
+                    return this;
+                }
+                Object[] copy = slots.clone();
+                copy[index] = leaf;
+                return new CollisionNode(hash, copy);
+            }
+            added[0] = true;
+            Object[] copy = Arrays.copyOf(slots, slots.length + 1);
+            copy[slots.length] = leaf;
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift) {
+            int index = indexOf(key, hash);
+            if (index < 0) {
+                return this;
+            }
+            if (slots.length == 1) {
+                return null;
+            }
+            Object[] copy = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, copy, 0, index);
+            System.arraycopy(slots, index + 1, copy, index, copy.length - index);
+            return new CollisionNode(this.hash, copy);
+        }
+
+        private int indexOf(Object key, int hash) {
+            for (int i = 0; i < slots.length; i++) {
+                if (((Leaf) slots[i]).matches(key, hash)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    // Depth-first walk over the trie with an explicit stack of slot arrays
+    private static final class LeafIterator implements Iterator<Leaf> {
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth;
+        private Leaf next;
+
+        LeafIterator(Node root) {
+            arrays[0] = root.slots;
+            advance();
+        }
+
+        private void advance() {
+            while (depth >= 0) {
+                if (positions[depth] == arrays[depth].length) {
+                    depth--;
+                    continue;
+                }
+                Object slot = arrays[depth][positions[depth]++];
+                if (slot instanceof Leaf) {
+                    next = (Leaf) slot;
+                    return;
+                }
+                depth++;
+                arrays[depth] = ((Node) slot).slots;
+                positions[depth] = 0;
+            }
+            next = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Leaf next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Leaf leaf = next;
+            advance();
+            return leaf;
+        }
+    }
+}
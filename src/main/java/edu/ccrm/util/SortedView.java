@@ -0,0 +1,137 @@
+package edu.ccrm.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A collection kept permanently sorted by a key, updated one element at a time
+ * Entries live in a concurrent skip list ordered by a snapshot of each element's
+ * key (ties broken by ID), so reading in order is a plain iteration, and a change
+ * to one element costs O(log n): the entry under its old key snapshot is removed
+ * and one under the new key is inserted. Readers never block and see a weakly
+ * consistent order; writers are serialized on the view
+ */
+public class SortedView<T, K> {
+
+    private final Function<? super T, String> idOf;
+    private final Function<? super T, ? extends K> keyOf;
+    private final ConcurrentSkipListSet<Entry<T, K>> entries;
+    private final Map<String, Entry<T, K>> current = new ConcurrentHashMap<>(); // ID -> indexed entry
+
+    public SortedView(Function<? super T, String> idOf, Function<? super T, ? extends K> keyOf,
+                      Comparator<? super K> keyOrder) {
+        this.idOf = Objects.requireNonNull(idOf, "ID function cannot be null");
+        this.keyOf = Objects.requireNonNull(keyOf, "Key function cannot be null");
+        Objects.requireNonNull(keyOrder, "Key order cannot be null");
+        Comparator<Entry<T, K>> byKey = (e1, e2) -> keyOrder.compare(e1.key, e2.key);
+        this.entries = new ConcurrentSkipListSet<>(byKey.thenComparing(entry -> entry.id));
+    }
+
+    /**
+     * Inserts an element, or re-positions it if it is already in the view and its key changed
+     */
+    public synchronized void add(T value) {
+        String id = idOf.apply(value);
+        K key = keyOf.apply(value);
+        Entry<T, K> previous = current.get(id);
+        if (previous != null) {
+            if (previous.value == value && Objects.equals(previous.key, key)) {
+                return;
+            }
+            entries.remove(previous);
+        }
+        Entry<T, K> entry = new Entry<>(id, key, value);
+        current.put(id, entry);
+        entries.add(entry);
+    }
+
+    /**
+     * Re-positions an element after its key changed; a no-op if it is not in the view
+     */
+    public synchronized void refresh(T value) {
+        String id = idOf.apply(value);
+        Entry<T, K> previous = current.get(id);
+        if (previous == null || previous.value != value) {
+            return;
+        }
+        K key = keyOf.apply(value);
+        if (Objects.equals(key, previous.key)) {
+            return;
+        }
+        Entry<T, K> entry = new Entry<>(id, key, value);
+        entries.remove(previous);
+        current.put(id, entry);
+        entries.add(entry);
+    }
+
+    public synchronized void remove(String id) {
+        Entry<T, K> previous = current.remove(id);
+        if (previous != null) {
+            entries.remove(previous);
+        }
+    }
+
+    public synchronized void rebuild(Collection<? extends T> values) {
+        entries.clear();
+        current.clear();
+        values.forEach(this::add);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        current.clear();
+    }
+
+    /**
+     * Elements in key order, without copying or sorting
+     */
+    public Stream<T> stream() {
+        return entries.stream().map(entry -> entry.value);
+    }
+
+    /**
+     * The first n elements in key order
+     */
+    public List<T> first(int n) {
+        return stream().limit(n).collect(Collectors.toList());
+    }
+
+    /**
+     * Elements whose key lies in [fromKey, toKey), in key order
+     */
+    public Stream<T> range(K fromKey, K toKey) {
+        return entries.subSet(new Entry<>("", fromKey, null), true, new Entry<>("", toKey, null), false)
+                      .stream()
+                      .map(entry -> entry.value);
+    }
+
+    /**
+     * Elements positioned after the given key and ID, in key order; seeks in O(log n)
+     */
+    public Stream<T> after(K key, String id) {
+        return entries.tailSet(new Entry<>(Objects.requireNonNull(id, "ID cannot be null"), key, null), false)
+                      .stream()
+                      .map(entry -> entry.value);
+    }
+
+    public int size() {
+        return current.size();
+    }
+
+    // An element under the key it had when it was (re-)indexed
+    private static final class Entry<T, K> {
+        final String id;
+        final K key;
+        final T value;
+
+        Entry(String id, K key, T value) {
+            this.id = id;
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package edu.ccrm.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonicalizing dictionary for low-cardinality strings
+ * Every distinct value is stored once and given a stable int code, so that
+ * a million students in "Computer Science" share a single String instance
+ * and can be compared by identity or by code instead of by equals()
+ */
+public final class StringDictionary {
+
+    // Shared dictionaries used by the domain model
+    public static final StringDictionary DEPARTMENTS = new StringDictionary("departments");
+    public static final StringDictionary SEMESTERS = new StringDictionary("semesters");
+    public static final StringDictionary SPECIALIZATIONS = new StringDictionary("specializations");
+    public static final StringDictionary ROOMS = new StringDictionary("rooms");
+
+    private final String name;
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private int size;
+
+    public StringDictionary(String name) {
+        this.name = Objects.requireNonNull(name, "Dictionary name cannot be null");
+    }
+
+    /**
+     * Returns the canonical instance for the given value (null stays null)
+     */
+    public String canonical(String value) {
+        if (value == null) return null;
+        // encode() may grow the array, so read it only after the code is known
+        int code = encode(value);
+        return values[code];
+    }
+
+    /**
+     * Returns the code for the value, adding it to the dictionary if unseen
+     */
+    public int encode(String value) {
+        Objects.requireNonNull(value, "Dictionary value cannot be null");
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        synchronized (this) {
+            code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            // Copy so the dictionary never pins a larger backing buffer (e.g. a CSV line)
+            String canonical = new String(value);
+            int newCode = size;
+            String[] current = values;
+            current[newCode] = canonical;
+            values = current; // volatile write publishes the new slot
+            size++;
+            codes.put(canonical, newCode);
+            return newCode;
+        }
+    }
+
+    /**
+     * Returns the code of a known value, or -1 without adding it
+     */
+    public int lookup(String value) {
+        if (value == null) return -1;
+        Integer code = codes.get(value);
+        return code != null ? code : -1;
+    }
+
+    /**
+     * Returns the codes of all known values equal to the given one ignoring case
+     * Used by case-insensitive searches so the per-row check is an int comparison
+     */
+    public Set<Integer> lookupIgnoreCase(String value) {
+        if (value == null) return Collections.emptySet();
+        Set<Integer> result = new HashSet<>();
+        codes.forEach((known, code) -> {
+            if (known.equalsIgnoreCase(value)) {
+                result.add(code);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Decodes a code back to its canonical value
+     */
+    public String decode(int code) {
+        String[] current = values;
+        if (code < 0 || code >= current.length || current[code] == null) {
+            throw new IllegalArgumentException("Unknown " + name + " code: " + code);
+        }
+        return current[code];
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StringDictionary{name='%s', size=%d}", name, size());
+    }
+}
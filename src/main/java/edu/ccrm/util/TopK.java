@@ -0,0 +1,94 @@
+package edu.ccrm.util;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Selects the k best elements in a given order without sorting everything
+ * A bounded heap holds the current k best with the worst on top, so each element
+ * costs one comparison against the top and, if it gets in, O(log k) to replace it:
+ * O(n log k) time and O(k) memory instead of O(n log n) time and O(n) memory for a
+ * copy-and-sort. The parallel variant fills one heap per split and merges them
+ */
+public final class TopK {
+
+    // Private constructor to prevent instantiation
+    private TopK() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     * The k smallest elements under the order (the first k of a sort), best first
+     */
+    public static <T> List<T> select(Iterable<? extends T> items, int k, Comparator<? super T> order) {
+        Heap<T> heap = new Heap<>(k, order);
+        for (T item : items) {
+            heap.offer(item);
+        }
+        return heap.toSortedList();
+    }
+
+    /**
+     * Same result as select, with the input split across the common fork-join pool;
+     * each split keeps its own bounded heap and the heaps are merged pairwise
+     */
+    public static <T> List<T> parallelSelect(Collection<? extends T> items, int k, Comparator<? super T> order) {
+        return items.parallelStream().collect(collector(k, order));
+    }
+
+    /**
+     * Collector form, usable with sequential and parallel streams
+     */
+    public static <T> Collector<T, ?, List<T>> collector(int k, Comparator<? super T> order) {
+        Objects.requireNonNull(order, "Order cannot be null");
+        Supplier<Heap<T>> supplier = () -> new Heap<>(k, order);
+        BiConsumer<Heap<T>, T> accumulator = Heap::offer;
+        BinaryOperator<Heap<T>> combiner = Heap::merge;
+        Function<Heap<T>, List<T>> finisher = Heap::toSortedList;
+        return Collector.of(supplier, accumulator, combiner, finisher);
+    }
+
+    // At most k elements, worst on top
+    private static final class Heap<T> {
+        private final int k;
+        private final Comparator<? super T> order;
+        private final PriorityQueue<T> queue;
+
+        Heap(int k, Comparator<? super T> order) {
+            if (k < 0) {
+                throw new IllegalArgumentException("k cannot be negative: " + k);
+            }
+            this.k = k;
+            this.order = Objects.requireNonNull(order, "Order cannot be null");
+            this.queue = new PriorityQueue<>(Math.max(1, Math.min(k, 1024)), order.reversed());
+        }
+
+        void offer(T item) {
+            if (queue.size() < k) {
+                queue.add(item);
+            } else if (k > 0 && order.compare(item, queue.peek()) < 0) {
+                queue.poll();
+                queue.add(item);
+            }
+        }
+
+        Heap<T> merge(Heap<T> other) {
+            Heap<T> larger = queue.size() >= other.queue.size() ? this : other;
+            Heap<T> smaller = larger == this ? other : this;
+            for (T item : smaller.queue) {
+                larger.offer(item);
+            }
+            return larger;
+        }
+
+        List<T> toSortedList() {
+            List<T> result = new ArrayList<>(queue);
+            result.sort(order);
+            return result;
+        }
+    }
+}
@@ -1,25 +1,13 @@
 package edu.ccrm.util;
 
-import java.util.regex.Pattern;
-
 /**
  * Utility class for validation operations
  * Demonstrates static utility methods and constants
+ * Matchers are hand-written character scans: no regex compilation, no Matcher
+ * allocation, so they are cheap enough to run on every construct and setter
  */
 public final class ValidationUtils {
 
-    // Email validation pattern
-    private static final Pattern EMAIL_PATTERN = 
-        Pattern.compile("^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\d[A-Za-z]{2,})$");
-
-    // Course code pattern (e.g., CS101, MATH201)
-    private static final Pattern COURSE_CODE_PATTERN = 
-        Pattern.compile("^[A-Z]{2,5}\\d{3}$");
-
-    // Registration number pattern (e.g., 2023CSE001)
-    private static final Pattern REG_NUMBER_PATTERN = 
-        Pattern.compile("^\\d{4}[A-Z]{3}\\d{3}$");
-
     // Private constructor to prevent instantiation
     private ValidationUtils() {
         throw new AssertionError("Utility class cannot be instantiated");
@@ -27,23 +15,65 @@ public final class ValidationUtils {
 
     /**
      * Validates email format
+     * Equivalent to ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$
      */
     public static boolean isValidEmail(String email) {
-        return email != null && EMAIL_PATTERN.matcher(email).matches();
+        if (email == null) return false;
+        int at = email.indexOf('@');
+        if (at <= 0 || at == email.length() - 1) return false;
+
+        for (int i = 0; i < at; i++) {
+            char c = email.charAt(i);
+            if (!isAsciiLetterOrDigit(c) && c != '+' && c != '_' && c != '.' && c != '-') {
+                return false;
+            }
+        }
+
+        int lastDot = -1;
+        for (int i = at + 1; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                lastDot = i;
+            } else if (!isAsciiLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+
+        // Domain needs a name before the last dot and a top-level domain of 2+ letters
+        if (lastDot <= at + 1 || email.length() - lastDot - 1 < 2) return false;
+        for (int i = lastDot + 1; i < email.length(); i++) {
+            if (!isAsciiLetter(email.charAt(i))) return false;
+        }
+        return true;
     }
 
     /**
-     * Validates course code format
+     * Validates course code format (e.g., CS101, MATH201)
+     * Equivalent to ^[A-Z]{2,5}\d{3}$
      */
     public static boolean isValidCourseCode(String courseCode) {
-        return courseCode != null && COURSE_CODE_PATTERN.matcher(courseCode).matches();
+        if (courseCode == null) return false;
+        int length = courseCode.length();
+        if (length < 5 || length > 8) return false;
+
+        int letters = length - 3;
+        for (int i = 0; i < letters; i++) {
+            if (!isUpperCase(courseCode.charAt(i))) return false;
+        }
+        return allDigits(courseCode, letters, length);
     }
 
     /**
-     * Validates registration number format
+     * Validates registration number format (e.g., 2023CSE001)
+     * Equivalent to ^\d{4}[A-Z]{3}\d{3}$
      */
     public static boolean isValidRegistrationNumber(String regNumber) {
-        return regNumber != null && REG_NUMBER_PATTERN.matcher(regNumber).matches();
+        if (regNumber == null || regNumber.length() != 10) return false;
+        return allDigits(regNumber, 0, 4)
+                && isUpperCase(regNumber.charAt(4))
+                && isUpperCase(regNumber.charAt(5))
+                && isUpperCase(regNumber.charAt(6))
+                && allDigits(regNumber, 7, 10);
     }
 
     /**
@@ -73,4 +103,25 @@ public final class ValidationUtils {
     public static boolean isValidId(String id) {
         return !isNullOrEmpty(id);
     }
-}
\ No newline at end of file
+
+    // Character class helpers (ASCII only, matching the original patterns)
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isUpperCase(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean allDigits(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+}
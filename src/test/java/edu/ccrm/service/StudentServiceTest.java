@@ -0,0 +1,91 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import java.util.List;
+
+/**
+ * Checks for StudentService; the project has no test framework, so run with
+ * java -ea -cp build edu.ccrm.service.StudentServiceTest after compiling src/main and src/test
+ */
+public final class StudentServiceTest {
+
+    public static void main(String[] args) throws Exception {
+        unenrollingGradedStudentKeepsHistoryAndGpaInStep();
+        reloadingStudentsKeepsArchivedSemesters();
+        segmentFileNamesAreDistinctPerSemester();
+        System.out.println("StudentServiceTest passed");
+    }
+
+    // A graded course that is dropped leaves the history as a dropped row and the GPA without its grade
+    private static void unenrollingGradedStudentKeepsHistoryAndGpaInStep() throws Exception {
+        CourseService courses = new CourseService();
+        StudentService service = new StudentService();
+        service.setCourseCatalog(courses);
+        Course kept = courses.addCourse(course("CS101", 4));
+        Course dropped = courses.addCourse(course("CS102", 3));
+        Student student = service.createStudent("S1", "Ann Lee", "ann@example.edu", "2023CSE001", 1, "CS");
+
+        service.enrollStudentInCourse("S1", kept);
+        service.enrollStudentInCourse("S1", dropped);
+        service.assignGrade("S1", "CS101", Grade.B);
+        service.assignGrade("S1", "CS102", Grade.S);
+        service.unenrollStudentFromCourse("S1", dropped);
+
+        List<Enrollment> history = service.getEnrollmentHistory("S1");
+        check(history.size() == 2, "history size " + history.size());
+        double points = 0;
+        int credits = 0;
+        for (Enrollment enrollment : history) {
+            if (enrollment.getCourseId().equals("CS102")) {
+                check(enrollment.isDropped(), "CS102 not marked dropped: " + enrollment);
+                check(enrollment.getGrade() == null, "CS102 kept its grade: " + enrollment);
+            } else if (enrollment.getGrade() != null) {
+                int courseCredits = courses.asMap().get(enrollment.getCourseId()).getCredits();
+                points += enrollment.getGrade().getGradePoints() * courseCredits;
+                credits += courseCredits;
+            }
+        }
+        double expected = credits == 0 ? 0.0 : points / credits;
+        check(Math.abs(student.calculateGPA() - expected) < 1e-9,
+              "GPA " + student.calculateGPA() + " disagrees with history " + expected);
+        check(student.getGrade("CS102") == null, "student kept the dropped grade");
+    }
+
+    // loadStudents replaces the active partition only; an archived semester is history
+    private static void reloadingStudentsKeepsArchivedSemesters() throws Exception {
+        CourseService courses = new CourseService();
+        StudentService service = new StudentService();
+        service.setCourseCatalog(courses);
+        Course course = courses.addCourse(course("CS201", 3));
+        Student student = service.createStudent("S2", "Bo Kim", "bo@example.edu", "2023CSE002", 2, "CS");
+        service.enrollStudentInCourse("S2", course);
+        service.assignGrade("S2", "CS201", Grade.A);
+        check(service.archiveSemester("FALL", false) == 1, "nothing archived");
+
+        service.loadStudents(List.of(student));
+        check(service.getEnrollmentsForSemester("FALL").size() == 1, "archived semester lost on reload");
+        check(service.getEnrollmentHistory("S2").size() == 1, "archived history lost on reload");
+    }
+
+    private static void segmentFileNamesAreDistinctPerSemester() {
+        String dash = EnrollmentLedger.segmentFileName("Fall-2024");
+        String space = EnrollmentLedger.segmentFileName("Fall 2024");
+        check(!dash.equals(space), "both semesters map to " + dash);
+        check(EnrollmentLedger.segmentFileName("Fall2024").equals("enrollments_Fall2024.seg"),
+              "plain name changed: " + EnrollmentLedger.segmentFileName("Fall2024"));
+    }
+
+    private static Course course(String id, int credits) {
+        return new Course.Builder().courseId(id).courseCode(id).title(id).credits(credits)
+                                   .department("CS").semester("FALL").build();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package edu.ccrm.util;
+
+import java.util.*;
+
+/**
+ * Checks for PersistentHashMap; the project has no test framework, so run with
+ * java -ea -cp build edu.ccrm.util.PersistentHashMapTest after compiling src/main and src/test
+ */
+public final class PersistentHashMapTest {
+
+    public static void main(String[] args) {
+        matchesHashMapUnderRandomUpdates();
+        olderVersionsAreUnchanged();
+        System.out.println("PersistentHashMapTest passed");
+    }
+
+    // "Aa" and "BB" (and their concatenations) have equal hash codes, so collision nodes are exercised too
+    private static void matchesHashMapUnderRandomUpdates() {
+        String[] colliding = {"AaAa", "AaBB", "BBAa", "BBBB"};
+        Random random = new Random(42);
+        Map<String, Integer> expected = new HashMap<>();
+        PersistentHashMap<String, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 50_000; i++) {
+            String key = random.nextInt(8) == 0 ? colliding[random.nextInt(colliding.length)]
+                                                : "k" + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            }
+            check(map.size() == expected.size(), "size " + map.size() + " after step " + i);
+            check(Objects.equals(map.get(key), expected.get(key)), "get(" + key + ") after step " + i);
+        }
+        Map<String, Integer> walked = new HashMap<>();
+        map.forEach(walked::put);
+        check(walked.equals(expected), "forEach disagrees with HashMap");
+        check(new ArrayList<>(map.values()).size() == expected.size(), "values size");
+        check(new HashSet<>(map.values()).equals(new HashSet<>(expected.values())), "values disagree");
+    }
+
+    private static void olderVersionsAreUnchanged() {
+        PersistentHashMap<String, Integer> before = PersistentHashMap.empty();
+        for (int i = 0; i < 1_000; i++) {
+            before = before.plus("k" + i, i);
+        }
+        PersistentHashMap<String, Integer> after = before.plus("k1", -1).minus("k2").plus("new", 7);
+        check(before.size() == 1_000 && before.get("k1") == 1 && before.get("k2") == 2 && !before.containsKey("new"),
+              "earlier version changed");
+        check(after.size() == 1_000 && after.get("k1") == -1 && !after.containsKey("k2") && after.get("new") == 7,
+              "later version wrong");
+        check(before.minus("absent") == before && before.plus("k3", before.get("k3")) == before,
+              "no-op updates should return the same map");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
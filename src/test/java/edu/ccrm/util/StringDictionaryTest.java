@@ -0,0 +1,33 @@
+package edu.ccrm.util;
+
+/**
+ * Checks for StringDictionary; the project has no test framework, so run with
+ * java -ea -cp build edu.ccrm.util.StringDictionaryTest after compiling src/main and src/test
+ */
+public final class StringDictionaryTest {
+
+    public static void main(String[] args) {
+        canonicalGrowsPastInitialCapacity();
+        System.out.println("StringDictionaryTest passed");
+    }
+
+    // The 17th and 33rd distinct values each force the backing array to grow
+    private static void canonicalGrowsPastInitialCapacity() {
+        StringDictionary dictionary = new StringDictionary("test");
+        for (int i = 0; i < 100; i++) {
+            String value = "value-" + i;
+            String canonical = dictionary.canonical(new String(value));
+            check(value.equals(canonical), "canonical(" + value + ") returned " + canonical);
+            check(canonical == dictionary.canonical(value), "second canonical(" + value + ") is not the same instance");
+            check(dictionary.encode(value) == i, "code of " + value);
+            check(canonical == dictionary.decode(i), "decode(" + i + ")");
+        }
+        check(dictionary.size() == 100, "size " + dictionary.size());
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}